@@ -44,6 +44,7 @@ const borrowerForm = document.getElementById('borrower-form');
 const loanForm = document.getElementById('loan-form');
 const borrowerSelect = document.getElementById('loan-borrower'); // Keep original name for consistency with other parts
 const loansTableBody = document.getElementById('loans-table-body');
+const loansSummary = document.getElementById('loans-summary');
 const btnRefresh = document.getElementById('btn-refresh');
 const alertsContainer = document.getElementById('alerts-container');
 const btnAddBorrower = document.getElementById('btn-add-borrower');
@@ -185,6 +186,7 @@ document.addEventListener('DOMContentLoaded', () => {
                 credentials: 'include'
             });
         } finally {
+            closeLedgerEvents();
             localStorage.removeItem('jwtToken');
             loginForm.reset();
             showLogin();
@@ -198,27 +200,112 @@ function initializeData() {
     fetchCsrfToken().then(() => {
         fetchBorrowers();
         fetchActiveLoans();
+        openLedgerEvents();
     });
 }
 
+// --- Live Updates ---
+
+// Changes made in other tabs are pushed by the server and applied to the loaded list, so they don't need
+// to re-download every loan. EventSource reconnects by itself after a drop. The stream only carries
+// changes committed on the instance serving it, so this tab applies its own writes from their responses
+// instead of waiting for the echo.
+let ledgerEvents = null;
+let activeLoans = [];
+
+function openLedgerEvents() {
+    closeLedgerEvents();
+    ledgerEvents = new EventSource(`${API_BASE_URL}/loans/events`, { withCredentials: true });
+
+    let connectedBefore = false;
+    ledgerEvents.addEventListener('open', () => {
+        // Anything committed while disconnected was missed; an unchanged ledger revalidates as 304
+        if (connectedBefore) fetchActiveLoans();
+        connectedBefore = true;
+    });
+    ledgerEvents.addEventListener('loan-created', (e) => applyLoan(JSON.parse(e.data).loan));
+    ledgerEvents.addEventListener('loan-repaid-partial', (e) => {
+        const { loanId, amount } = JSON.parse(e.data);
+        const loan = activeLoans.find(l => l.id === loanId);
+        if (loan) loan.amount = subtractAmount(loan.amount, amount);
+        onLoansChanged();
+    });
+    ['loan-repaid-full', 'loan-deleted'].forEach(type => ledgerEvents.addEventListener(type, (e) => {
+        const { loanId } = JSON.parse(e.data);
+        activeLoans = activeLoans.filter(l => l.id !== loanId);
+        onLoansChanged();
+    }));
+    // Batches only carry a count; fetch the list once rather than receive every item
+    ledgerEvents.addEventListener('loans-created', () => fetchActiveLoans());
+    // The server's overdue job flagged some loans; refetch so they show their new status
+    ledgerEvents.addEventListener('loans-overdue', () => fetchActiveLoans());
+    ['borrower-created', 'borrowers-created'].forEach(type => ledgerEvents.addEventListener(type, () => fetchBorrowers()));
+}
+
+function closeLedgerEvents() {
+    if (ledgerEvents) {
+        ledgerEvents.close();
+        ledgerEvents = null;
+    }
+}
+
+// Same order as the server's list: by due date, then id
+function compareLoans(a, b) {
+    return (a.dueDate || '').localeCompare(b.dueDate || '') || a.id - b.id;
+}
+
+// Amounts have two decimal places on the server (BigDecimal, NUMERIC(38, 2)). Subtract whole cents, so
+// the balance matches the server's exactly instead of picking up binary rounding like 0.30000000000000004.
+function subtractAmount(balance, repaid) {
+    return (Math.round(Number(balance) * 100) - Math.round(Number(repaid) * 100)) / 100;
+}
+
+// Idempotent, so the event echoing this tab's own write is harmless
+function applyLoan(loan) {
+    activeLoans = activeLoans.filter(l => l.id !== loan.id).concat(loan).sort(compareLoans);
+    onLoansChanged();
+}
+
+function onLoansChanged() {
+    renderLoansTable(activeLoans);
+    fetchSummary();
+}
+
 // --- API Calls & Handlers ---
 
-async function fetchBorrowers() {
-    try {
-        const response = await fetch(`${API_BASE_URL}/borrowers`, {
+// Follows the X-Next-Cursor header of a keyset paginated list endpoint until the last page.
+// Returns null when the session is no longer authenticated.
+async function fetchAllPages(resource) {
+    const items = [];
+    let cursor = null;
+    do {
+        const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+        const response = await fetch(`${API_BASE_URL}/${resource}${query}`, {
             method: 'GET',
             headers: {
                 'Accept': 'application/json',
                 ...getAuthHeaders()
             },
-            credentials: 'include'
+            credentials: 'include', // Sent HttpOnly JWT cookie automatically or Bearer
+            // Revalidate with If-None-Match; an unchanged ledger comes back as 304 and the cached page is reused
+            cache: 'no-cache'
         });
+
         if (!response.ok) {
-            if (response.status === 401) { showLogin(); return; }
-            throw new Error(`Failed to fetch borrowers: ${response.statusText}`);
+            if (response.status === 401) return null;
+            throw new Error(`Failed to fetch ${resource}: ${response.statusText}`);
         }
 
-        const borrowers = await response.json();
+        items.push(...await response.json());
+        cursor = response.headers.get('X-Next-Cursor');
+    } while (cursor);
+    return items;
+}
+
+async function fetchBorrowers() {
+    try {
+        const borrowers = await fetchAllPages('borrowers');
+        if (borrowers === null) { showLogin(); return; }
 
         // Populate select dropdown
         borrowerSelect.innerHTML = '<option value="" disabled selected>-- Select a Borrower --</option>';
@@ -241,29 +328,52 @@ async function fetchBorrowers() {
 async function fetchActiveLoans() {
     loansTableBody.innerHTML = `<tr><td colspan="5" class="text-center loading-state">Fetching active loans...</td></tr>`;
     try {
-        const response = await fetch(`${API_BASE_URL}/loans`, {
+        // Every unpaid loan, overdue ones included, in due date order
+        const loans = await fetchAllPages('loans');
+        if (loans === null) { showLogin(); return; }
+        activeLoans = loans;
+        renderLoansTable(activeLoans);
+        showApp(); // Unhide if successful auth
+        fetchSummary();
+    } catch (error) {
+        loansTableBody.innerHTML = `<tr><td colspan="5" class="text-center empty-state">Error loading connection to server.</td></tr>`;
+        console.error(error);
+    }
+}
+
+// Totals are aggregated by the server rather than summed over the downloaded loan list
+async function fetchSummary() {
+    try {
+        const response = await fetch(`${API_BASE_URL}/loans/summary`, {
             method: 'GET',
             headers: {
                 'Accept': 'application/json',
                 ...getAuthHeaders()
             },
-            credentials: 'include' // Sent HttpOnly JWT cookie automatically or Bearer
+            credentials: 'include'
         });
-
         if (!response.ok) {
-            if (response.status === 401) { showLogin(); return; }
-            throw new Error(`Failed to fetch active loans: ${response.statusText}`);
+            loansSummary.textContent = '';
+            return;
         }
-
-        const loans = await response.json();
-        renderLoansTable(loans);
-        showApp(); // Unhide if successful auth
+        renderSummary(await response.json());
     } catch (error) {
-        loansTableBody.innerHTML = `<tr><td colspan="5" class="text-center empty-state">Error loading connection to server.</td></tr>`;
+        loansSummary.textContent = '';
         console.error(error);
     }
 }
 
+function renderSummary(summary) {
+    const outstanding = Object.entries(summary.outstandingByCurrency || {})
+        .map(([currency, amount]) => new Intl.NumberFormat(undefined, { style: 'currency', currency }).format(amount))
+        .join(' + ');
+    const parts = [`${summary.activeLoans} active`, `${summary.overdueLoans} overdue`];
+    if (outstanding) {
+        parts.unshift(`Outstanding: ${outstanding}`);
+    }
+    loansSummary.textContent = parts.join(' · ');
+}
+
 async function handleBorrowerSubmit(e) {
     e.preventDefault();
     setLoading(btnAddBorrower, true);
@@ -295,7 +405,7 @@ async function handleBorrowerSubmit(e) {
 
         showAlert(`Borrower ${borrowerData.name} added successfully!`, 'success');
         borrowerForm.reset();
-        await fetchBorrowers(); // Refresh dropdown
+        await fetchBorrowers(); // Revalidates the cached list, so it costs a 304 if an event got there first
     } catch (error) {
         showAlert(error.message, 'error');
     } finally {
@@ -336,7 +446,7 @@ async function handleLoanSubmit(e) {
         showAlert('Loan recorded successfully!', 'success');
         loanForm.reset();
         document.getElementById('loan-date').valueAsDate = new Date(); // Reset date back to today
-        await fetchActiveLoans(); // Refresh table
+        applyLoan(await response.json());
     } catch (error) {
         showAlert(error.message, 'error');
     } finally {
@@ -372,7 +482,7 @@ async function markLoanRepaid(loanId) {
         }
 
         showAlert('Repayment processed successfully.', 'success');
-        fetchActiveLoans(); // Refresh table
+        fetchActiveLoans(); // The response has no body; a conditional GET picks up the new balance
     } catch (error) {
         console.error('Error processing repayment:', error);
         showAlert('An error occurred while processing the repayment.', 'error');
@@ -407,7 +517,7 @@ function renderLoansTable(loans) {
 
         const row = document.createElement('tr');
         row.innerHTML = `
-            <td><strong>${escapeHtml(borrowerName)}</strong></td>
+            <td><strong>${escapeHtml(borrowerName)}</strong>${loan.status === 'OVERDUE' ? '<span class="badge badge-overdue">Overdue</span>' : ''}</td>
             <td class="text-right">${amountFormatted}</td>
             <td>${formatDate(loan.dateLent)}</td>
             <td>${formatDate(loan.dueDate)}</td>
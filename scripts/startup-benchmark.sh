@@ -0,0 +1,112 @@
+#!/usr/bin/env bash
+# Cold-start comparison of the three images the Dockerfile builds:
+#   jvm      plain JVM image, started without the CDS archive
+#   aot-cds  Spring AOT + the CDS archive trained at image build time
+#   native   GraalVM native executable
+# Each run starts a fresh container and measures the wall time from `docker run` until the first login
+# succeeds, which is what a user waiting on a scaled-to-zero Cloud Run instance sees. Spring's own
+# "Started BookkeepingApplication in ..." figure is reported next to it.
+#
+# Usage: scripts/startup-benchmark.sh [runs-per-image]     (needs docker, curl and GNU date)
+#   CPUS / MEMORY limit each container (default 1 CPU and 512m, close to a small Cloud Run instance)
+#   SKIP_BUILD=true reuses previously built bookkeeping:<variant> images
+set -euo pipefail
+
+RUNS=${1:-5}
+CPUS=${CPUS:-1}
+MEMORY=${MEMORY:-512m}
+PORT=${PORT:-18080}
+NETWORK=bookkeeping-bench
+DB=bookkeeping-bench-db
+APP=bookkeeping-bench-app
+USERNAME=startup-bench
+PASSWORD=StartupBench1
+
+cd "$(dirname "$0")/.."
+
+cleanup() {
+    docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+    docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+    docker build -t bookkeeping:jvm .
+    docker build --build-arg AOT=true -t bookkeeping:aot-cds .
+    docker build --target native -t bookkeeping:native .
+fi
+
+# A real PostgreSQL, migrated by the warm-up run, so every measured start only validates the schema
+docker network create "$NETWORK" >/dev/null
+docker run -d --name "$DB" --network "$NETWORK" -e POSTGRES_DB=bookkeeping_db -e POSTGRES_PASSWORD=password \
+    postgres:16-alpine >/dev/null
+until docker exec "$DB" pg_isready -U postgres -d bookkeeping_db >/dev/null 2>&1; do
+    sleep 0.5
+done
+
+# Starts one container and prints "<ms to first login> <Spring's started-in seconds>"
+start_once() {
+    local image=$1
+    shift
+    local started
+    started=$(now_ms)
+    docker run -d --rm --name "$APP" --network "$NETWORK" -p "$PORT:8080" --cpus "$CPUS" --memory "$MEMORY" \
+        -e DB_URL="jdbc:postgresql://$DB:5432/bookkeeping_db?reWriteBatchedInserts=true" \
+        -e DB_USERNAME=postgres -e DB_PASSWORD=password "$@" "$image" >/dev/null
+
+    local body="{\"username\": \"$USERNAME\", \"password\": \"$PASSWORD\"}"
+    local status
+    while true; do
+        status=$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/auth/login" \
+            -H 'Content-Type: application/json' -d "$body" || true)
+        if [ "$status" = "200" ]; then
+            break
+        fi
+        if [ "$status" = "401" ]; then
+            # Only on the warm-up run against an empty database
+            curl -s -o /dev/null -X POST "http://localhost:$PORT/api/auth/signup" \
+                -H 'Content-Type: application/json' -d "$body"
+        fi
+        if ! docker inspect "$APP" >/dev/null 2>&1; then
+            echo "Container for $image exited before the first login" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local elapsed=$(($(now_ms) - started))
+
+    local spring
+    spring=$(docker logs "$APP" 2>&1 | sed -n 's/.*Started BookkeepingApplication in \([0-9.]*\) seconds.*/\1/p' | head -n 1)
+    docker stop "$APP" >/dev/null
+    while docker inspect "$APP" >/dev/null 2>&1; do
+        sleep 0.1
+    done
+    echo "$elapsed ${spring:--}"
+}
+
+echo "Warm-up run (migrates the database and signs up $USERNAME)..."
+start_once bookkeeping:jvm -e JAVA_CDS_OPTS= >/dev/null
+
+printf '\n%-10s %22s %26s\n' "image" "first login (ms, p50)" "Spring started in (s, p50)"
+for variant in jvm aot-cds native; do
+    results=()
+    for ((i = 1; i <= RUNS; i++)); do
+        if [ "$variant" = "jvm" ]; then
+            result=$(start_once "bookkeeping:$variant" -e JAVA_CDS_OPTS=)
+        else
+            result=$(start_once "bookkeeping:$variant")
+        fi
+        results+=("$result")
+    done
+    login_ms=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+    spring_s=$(printf '%s\n' "${results[@]}" | awk '$2 != "-" { print $2 }' | median)
+    printf '%-10s %22s %26s\n' "$variant" "$login_ms" "$spring_s"
+done
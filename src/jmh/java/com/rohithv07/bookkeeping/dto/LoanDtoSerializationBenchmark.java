@@ -0,0 +1,78 @@
+package com.rohithv07.bookkeeping.dto;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.config.ColumnarJsonHttpMessageConverter;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoanDtoSerializationBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int loanCount;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ColumnarJsonHttpMessageConverter columnarConverter;
+    private JavaType loanType;
+    private List<LoanDto> loans;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring Boot uses for the MVC converter: JavaTimeModule, ISO dates
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        columnarConverter = new ColumnarJsonHttpMessageConverter(objectMapper);
+        loanType = objectMapper.constructType(LoanDto.class);
+
+        loans = new ArrayList<>(loanCount);
+        for (int i = 0; i < loanCount; i++) {
+            loans.add(new LoanDto((long) i, 1L, "Benchmark Borrower", new BigDecimal("125.50"), "USD",
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), LoanStatus.ACTIVE));
+        }
+
+        // Payload size is the other half of the comparison; printed once per trial next to the timings
+        try {
+            System.out.printf("%n%d loans: json=%d bytes, cbor=%d bytes, columnar=%d bytes%n", loanCount,
+                    serializeList().length, serializeCbor().length, serializeColumnar().length);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return objectMapper.writeValueAsBytes(loans);
+    }
+
+    @Benchmark
+    public byte[] serializeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(loans);
+    }
+
+    @Benchmark
+    public byte[] serializeColumnar() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        columnarConverter.write(loans, loanType, out);
+        return out.toByteArray();
+    }
+}
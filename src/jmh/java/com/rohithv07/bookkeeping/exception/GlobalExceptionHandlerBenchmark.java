@@ -0,0 +1,62 @@
+package com.rohithv07.bookkeeping.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and serializes the error bodies returned for a missing resource and for a failed validation
+ * of a loan payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private ResourceNotFoundException notFound;
+    private MethodArgumentNotValidException invalid;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        notFound = new ResourceNotFoundException("Loan not found with ID: 42");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new LoanDto(), "loanDto");
+        bindingResult.rejectValue("borrowerId", "NotNull", "Borrower ID is required");
+        bindingResult.rejectValue("amount", "DecimalMin", "Amount must be greater than zero");
+        bindingResult.rejectValue("dateLent", "NotNull", "Date lent is required");
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("target", LoanDto.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] resourceNotFound() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleResourceNotFoundException(notFound).getBody());
+    }
+
+    @Benchmark
+    public byte[] validationErrors() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleValidationExceptions(invalid).getBody());
+    }
+
+    // Stand-in controller method for the MethodParameter of the validation failure
+    @SuppressWarnings("unused")
+    private void target(LoanDto loanDto) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.rohithv07.bookkeeping.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of the JWT filter for a bearer request: {@code cachedToken} is the steady state of a polling
+ * client, {@code uncachedToken} pays the full signature check on every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "this_is_a_local_dummy_secret_key_for_testing_only_do_not_use";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter nonCachingFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 86_400_000);
+        // Tokens carry the user id claim, so the username lookup (and its repository) is never used
+        CurrentUserResolver resolver = new CurrentUserResolver(null, 1, Duration.ofMinutes(1));
+        cachingFilter = new JwtAuthenticationFilter(new JwtTokenVerifier(jwtUtil, resolver,
+                new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10)), Set.of());
+        nonCachingFilter = new JwtAuthenticationFilter(new JwtTokenVerifier(jwtUtil, resolver,
+                new SimpleMeterRegistry(), 0, Duration.ofMinutes(10)), Set.of());
+
+        request = new MockHttpServletRequest("GET", "/api/loans");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("benchmark-user", 42L));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        return filter(cachingFilter);
+    }
+
+    @Benchmark
+    public Object uncachedToken() throws Exception {
+        return filter(nonCachingFilter);
+    }
+
+    private Object filter(JwtAuthenticationFilter filter) throws Exception {
+        // OncePerRequestFilter marks the request as filtered; reset so every invocation runs doFilterInternal
+        request.clearAttributes();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        // Cleared here rather than in an invocation-level fixture, whose timing overhead would swamp a
+        // microsecond-scale filter pass; a leftover context would also skip the filter's work next time
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoanMappingBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int loanCount;
+
+    private LoanServiceImpl loanService;
+    private Loan singleLoan;
+    private List<Loan> loans;
+
+    @Setup
+    public void setUp() {
+        // mapToDto touches no collaborators
+        loanService = new LoanServiceImpl(null, null, null, null, null, null, null, new SimpleMeterRegistry());
+
+        Borrower borrower = Borrower.builder().id(1L).name("Benchmark Borrower").email("b@example.com").build();
+        loans = new ArrayList<>(loanCount);
+        for (int i = 0; i < loanCount; i++) {
+            loans.add(Loan.builder()
+                    .id((long) i)
+                    .borrower(borrower)
+                    .amount(new BigDecimal("125.50"))
+                    .currency("USD")
+                    .dateLent(LocalDate.of(2024, 1, 1))
+                    .dueDate(LocalDate.of(2024, 2, 1))
+                    .status(LoanStatus.ACTIVE)
+                    .build());
+        }
+        singleLoan = loans.get(0);
+    }
+
+    @Benchmark
+    public LoanDto mapSingle() {
+        return loanService.mapToDto(singleLoan);
+    }
+
+    @Benchmark
+    public List<LoanDto> mapList() {
+        return loans.stream().map(loanService::mapToDto).toList();
+    }
+}
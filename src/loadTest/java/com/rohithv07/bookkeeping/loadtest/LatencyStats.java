@@ -0,0 +1,105 @@
+package com.rohithv07.bookkeeping.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds, 3 significant digits) and error counts.
+ * Latency is measured from send to full response, so a slow server also slows its closed-loop users.
+ */
+class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        histograms.get(operation).recordValue(
+                Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void print(PrintStream out, Duration window) {
+        out.printf("%-28s %9s %8s %9s %9s %9s %10s %9s%n", "Endpoint", "count", "errors", "req/s", "p50 ms",
+                "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%-28s %,9d %,8d %,9.1f %9.2f %9.2f %10.2f %9.2f%n", operation.endpoint(), count,
+                    errors.get(operation).sum(), count / (window.toMillis() / 1000.0),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+    }
+
+    // One .hgrm file per endpoint (values in ms), loadable by the HdrHistogram plotter for run-to-run comparison
+    void writePercentileFiles(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(operation.key() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    List<String> thresholdViolations(LoadTestOptions options) {
+        List<String> violations = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            check(violations, operation, "p99", histogram.getValueAtPercentile(99), options.thresholdP99());
+            check(violations, operation, "p99.9", histogram.getValueAtPercentile(99.9), options.thresholdP999());
+            double errorRate = errors.get(operation).sum() / (double) count;
+            if (options.thresholdErrorRate() != null && errorRate > options.thresholdErrorRate()) {
+                violations.add(String.format("%s error rate %.4f > %.4f", operation.endpoint(), errorRate,
+                        options.thresholdErrorRate()));
+            }
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, Operation operation, String label, long valueMicros,
+            Duration limit) {
+        if (limit != null && valueMicros > limit.toNanos() / 1_000) {
+            violations.add(String.format("%s %s %.2f ms > %d ms", operation.endpoint(), label, millis(valueMicros),
+                    limit.toMillis()));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
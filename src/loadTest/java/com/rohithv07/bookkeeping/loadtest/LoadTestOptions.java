@@ -0,0 +1,73 @@
+package com.rohithv07.bookkeeping.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all given as {@code --name=value}:
+ * <ul>
+ * <li>{@code users} concurrent simulated users (default 50)</li>
+ * <li>{@code duration} measured run time, {@code warmup} unmeasured lead-in (60s / 10s)</li>
+ * <li>{@code mix} weights per operation, e.g. {@code createBorrower:5,createLoan:15,listLoans:70,repayLoan:10}</li>
+ * <li>{@code think-time} pause between a user's requests (0ms)</li>
+ * <li>{@code base-url} target an already running server instead of booting one on H2</li>
+ * <li>{@code report-dir} where HdrHistogram percentile files are written (build/reports/loadtest)</li>
+ * <li>{@code threshold-p99}, {@code threshold-p999}, {@code threshold-error-rate}: fail the run when any
+ * endpoint exceeds them</li>
+ * </ul>
+ */
+record LoadTestOptions(int users, Duration duration, Duration warmup, Map<Operation, Integer> mix,
+        Duration thinkTime, String baseUrl, Path reportDir, Duration thresholdP99, Duration thresholdP999,
+        Double thresholdErrorRate) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                mix(values.getOrDefault("mix", "createBorrower:5,createLoan:15,listLoans:70,repayLoan:10")),
+                duration(values.getOrDefault("think-time", "0ms")),
+                values.get("base-url"),
+                Path.of(values.getOrDefault("report-dir", "build/reports/loadtest")),
+                values.containsKey("threshold-p99") ? duration(values.get("threshold-p99")) : null,
+                values.containsKey("threshold-p999") ? duration(values.get("threshold-p999")) : null,
+                values.containsKey("threshold-error-rate") ? Double.valueOf(values.get("threshold-error-rate")) : null);
+    }
+
+    boolean thresholdMode() {
+        return thresholdP99 != null || thresholdP999 != null || thresholdErrorRate != null;
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix but got: " + entry);
+            }
+            weights.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1]));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,117 @@
+package com.rohithv07.bookkeeping.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.BookkeepingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline load test. Boots the application with the {@code loadtest} profile (embedded H2, random port)
+ * unless {@code --base-url} points at a running server, signs up and logs in the simulated users, then
+ * drives the configured request mix and prints per-endpoint throughput and latency percentiles.
+ * Exits with status 1 when threshold options are given and any endpoint exceeds them.
+ *
+ * <p>The generator shares the JVM (and CPU) with an embedded server, so compare runs made the same way.
+ */
+public class LoadTestRunner {
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyStats stats = new LatencyStats();
+
+    LoadTestRunner(LoadTestOptions options, URI baseUri) {
+        this.options = options;
+        this.baseUri = baseUri;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext application = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            application = new SpringApplicationBuilder(BookkeepingApplication.class)
+                    .profiles("loadtest")
+                    .properties("server.port=0")
+                    .run();
+            baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+
+        boolean passed;
+        try {
+            passed = new LoadTestRunner(options, URI.create(baseUrl)).run();
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        System.out.printf("Load test against %s: %d users, %s warm-up, %s measured, mix %s%n", baseUri,
+                options.users(), options.warmup(), options.duration(), options.mix());
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<SimulatedUser> users = new ArrayList<>(options.users());
+        for (int i = 0; i < options.users(); i++) {
+            users.add(new SimulatedUser(client, baseUri, objectMapper, stats, options, "loadtest-" + runId + "-" + i));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> setups = new ArrayList<>();
+            for (SimulatedUser user : users) {
+                setups.add(executor.submit(() -> {
+                    user.signUpAndLogIn();
+                    return null;
+                }));
+            }
+            for (Future<?> setup : setups) {
+                setup.get();
+            }
+
+            long measureFrom = System.nanoTime() + options.warmup().toNanos();
+            long deadline = measureFrom + options.duration().toNanos();
+            List<Future<?>> runs = new ArrayList<>();
+            for (SimulatedUser user : users) {
+                runs.add(executor.submit(() -> {
+                    user.runUntil(measureFrom, deadline);
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        }
+
+        stats.print(System.out, options.duration());
+        stats.writePercentileFiles(options.reportDir());
+        System.out.println("Percentile distributions written to " + options.reportDir().toAbsolutePath());
+
+        if (!options.thresholdMode()) {
+            return true;
+        }
+        List<String> violations = stats.thresholdViolations(options);
+        if (violations.isEmpty()) {
+            System.out.println("PASS: all endpoints within thresholds");
+            return true;
+        }
+        System.out.println("FAIL:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.rohithv07.bookkeeping.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Endpoints the simulated users call; {@link #key} is the name used in {@code --mix}.
+ */
+enum Operation {
+    CREATE_BORROWER("createBorrower", "POST /api/borrowers"),
+    CREATE_LOAN("createLoan", "POST /api/loans"),
+    LIST_LOANS("listLoans", "GET /api/loans"),
+    REPAY_LOAN("repayLoan", "PUT /api/loans/{id}/repay");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation in --mix: " + key));
+    }
+}
@@ -0,0 +1,180 @@
+package com.rohithv07.bookkeeping.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One closed-loop client: signs up and logs in once, then issues requests drawn from the weighted mix
+ * until the deadline, keeping track of the borrowers and loans it created so later calls can use them.
+ */
+class SimulatedUser {
+
+    private static final String PASSWORD = "LoadTest123";
+    private static final int SETUP_ATTEMPTS = 30;
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+    private final LoadTestOptions options;
+    private final String username;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<Long> borrowerIds = new ArrayList<>();
+    private final List<Long> loanIds = new ArrayList<>();
+    private String token;
+    private long measureFromNanos;
+
+    SimulatedUser(HttpClient client, URI baseUri, ObjectMapper objectMapper, LatencyStats stats,
+            LoadTestOptions options, String username) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.options = options;
+        this.username = username;
+
+        Map<Operation, Integer> mix = options.mix();
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    // Not measured: signup and login go through the throttled BCrypt pool, so back off on 429/503
+    void signUpAndLogIn() throws IOException, InterruptedException {
+        String credentials = objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD));
+        HttpResponse<String> signup = sendWithBackoff(post("/api/auth/signup", credentials));
+        if (signup.statusCode() != 200 && signup.statusCode() != 400) {
+            throw new IllegalStateException("Signup failed for " + username + ": " + signup.statusCode());
+        }
+        HttpResponse<String> login = sendWithBackoff(post("/api/auth/login", credentials));
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + login.statusCode());
+        }
+        token = objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    void runUntil(long measureFromNanos, long deadlineNanos) throws InterruptedException {
+        this.measureFromNanos = measureFromNanos;
+        while (System.nanoTime() < deadlineNanos) {
+            execute(nextOperation());
+            if (!options.thinkTime().isZero()) {
+                Thread.sleep(options.thinkTime());
+            }
+        }
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void execute(Operation operation) {
+        // Fall back to the call that creates the missing prerequisite
+        if (operation == Operation.REPAY_LOAN && loanIds.isEmpty()) {
+            operation = Operation.CREATE_LOAN;
+        }
+        if (operation == Operation.CREATE_LOAN && borrowerIds.isEmpty()) {
+            operation = Operation.CREATE_BORROWER;
+        }
+
+        try {
+            switch (operation) {
+                case CREATE_BORROWER -> {
+                    int n = borrowerIds.size();
+                    HttpResponse<String> response = timed(operation, authorized(post("/api/borrowers",
+                            objectMapper.writeValueAsString(Map.of("name", "Borrower " + n,
+                                    "email", username + "-" + n + "@example.com")))), 200);
+                    if (response.statusCode() == 200) {
+                        borrowerIds.add(idOf(response));
+                    }
+                }
+                case CREATE_LOAN -> {
+                    Long borrowerId = borrowerIds.get(ThreadLocalRandom.current().nextInt(borrowerIds.size()));
+                    HttpResponse<String> response = timed(operation, authorized(post("/api/loans",
+                            objectMapper.writeValueAsString(Map.of("borrowerId", borrowerId, "amount", 1000,
+                                    "dateLent", LocalDate.now().toString())))), 200);
+                    if (response.statusCode() == 200) {
+                        loanIds.add(idOf(response));
+                    }
+                }
+                case LIST_LOANS -> timed(operation, authorized(HttpRequest.newBuilder(baseUri.resolve("/api/loans"))
+                        .GET()), 200);
+                case REPAY_LOAN -> {
+                    int index = ThreadLocalRandom.current().nextInt(loanIds.size());
+                    HttpResponse<String> response = timed(operation, authorized(HttpRequest.newBuilder(
+                            baseUri.resolve("/api/loans/" + loanIds.get(index) + "/repay"))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString("{\"amount\": 1.00}"))), 204);
+                    if (response.statusCode() == 404) {
+                        loanIds.remove(index);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Connection level failures count against the endpoint like error statuses do
+            stats.record(operation, 0, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponse<String> timed(Operation operation, HttpRequest.Builder request, int expectedStatus)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        long latency = System.nanoTime() - start;
+        if (start >= measureFromNanos) {
+            stats.record(operation, latency, response.statusCode() == expectedStatus);
+        }
+        return response;
+    }
+
+    private HttpResponse<String> sendWithBackoff(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = null;
+        for (int attempt = 0; attempt < SETUP_ATTEMPTS; attempt++) {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 429 && response.statusCode() != 503) {
+                return response;
+            }
+            long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(retryAfterSeconds * 1000 + ThreadLocalRandom.current().nextInt(250));
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+
+    private long idOf(HttpResponse<String> response) throws IOException {
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("id").asLong();
+    }
+}
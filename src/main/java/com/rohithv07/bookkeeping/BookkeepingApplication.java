@@ -1,11 +1,14 @@
 package com.rohithv07.bookkeeping;
 
+import com.rohithv07.bookkeeping.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class BookkeepingApplication {
 
 	public static void main(String[] args) {
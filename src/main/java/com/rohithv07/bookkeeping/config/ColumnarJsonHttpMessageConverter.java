@@ -0,0 +1,141 @@
+package com.rohithv07.bookkeeping.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes a collection of DTOs as {@link WireFormats#COLUMNAR_JSON}: the row count, then one array of
+ * values per property. Property names are written once instead of once per row, and each cell uses
+ * the mapper's own serializer (ISO dates, plain decimals, enum names), so values read the same as in
+ * the row-oriented JSON. Write-only; requests are still sent as plain JSON.
+ */
+public class ColumnarJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<?>> {
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(WireFormats.COLUMNAR_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    // Only when negotiated explicitly: never offered for */*, and ahead of the JSON converter, which
+    // would otherwise claim this type through application/*+json and write plain rows
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return mediaType != null && WireFormats.COLUMNAR_JSON.equalsTypeAndSubtype(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Collection<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response-only format", inputMessage);
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response-only format", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> rows, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        // The container owns the response stream; the generator must not close it
+        write(rows, elementType(rows, type), StreamUtils.nonClosing(outputMessage.getBody()));
+    }
+
+    // Public so the serialization benchmark measures exactly what the endpoint writes
+    public void write(Collection<?> rows, JavaType elementType, OutputStream out) throws IOException {
+        SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+        List<Column> columns = elementType != null ? columns(elementType, provider) : List.of();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("rows", rows.size());
+            generator.writeObjectFieldStart("columns");
+            for (Column column : columns) {
+                generator.writeArrayFieldStart(column.name());
+                for (Object row : rows) {
+                    Object value = column.accessor().getValue(row);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (column.serializer() != null) {
+                        column.serializer().serialize(value, generator, provider);
+                    } else {
+                        provider.defaultSerializeValue(value, generator);
+                    }
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private JavaType elementType(Collection<?> rows, Type type) {
+        JavaType collectionType = type != null ? objectMapper.getTypeFactory().constructType(type) : null;
+        if (collectionType != null && collectionType.getContentType() != null
+                && !collectionType.getContentType().isJavaLangObject()) {
+            return collectionType.getContentType();
+        }
+        // Raw collection: fall back to the first row, an empty one has no columns to describe
+        return rows.isEmpty() ? null : objectMapper.constructType(rows.iterator().next().getClass());
+    }
+
+    // Resolved once per response rather than per row
+    private List<Column> columns(JavaType elementType, SerializerProvider provider) throws IOException {
+        BeanDescription description = objectMapper.getSerializationConfig().introspect(elementType);
+        List<Column> columns = new ArrayList<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            AnnotatedMember accessor = property.getAccessor();
+            if (accessor == null || !property.couldSerialize()) {
+                continue;
+            }
+            accessor.fixAccess(true);
+            // Declared types that are not concrete are resolved per value instead
+            JavaType type = property.getPrimaryType();
+            JsonSerializer<Object> serializer = type.isConcrete() && !type.isJavaLangObject()
+                    ? provider.findTypedValueSerializer(type, true, null)
+                    : null;
+            columns.add(new Column(property.getName(), accessor, serializer));
+        }
+        return columns;
+    }
+
+    private record Column(String name, AnnotatedMember accessor, JsonSerializer<Object> serializer) {
+    }
+}
@@ -1,68 +1,113 @@
 package com.rohithv07.bookkeeping.config;
 
-import com.rohithv07.bookkeeping.model.AppUser;
-import com.rohithv07.bookkeeping.model.Borrower;
-import com.rohithv07.bookkeeping.model.Loan;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.DataMigrationRepository;
+import com.rohithv07.bookkeeping.repository.LedgerVersionRepository;
 import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.service.LedgerVersionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
+/**
+ * Hands loans and borrowers saved before records had an owner to the first registered user, and gives
+ * users created before ledger versions existed their version row. The work is set-based: each chunk is
+ * one {@code UPDATE ... WHERE user_id IS NULL} in its own transaction, so nothing is loaded into memory
+ * and no lock is held for the whole backlog. Once done a marker row is written and every later boot
+ * skips the migration after one primary key lookup.
+ * <p>
+ * Replicas booting together can all miss the marker and run at once. Every step tolerates that: a chunk
+ * only claims rows still without an owner, and both inserts skip rows that already exist, so the
+ * instances share the work and whichever records the marker second treats the migration as done.
+ */
 @Component
 @Slf4j
 public class DataMigrationRunner implements CommandLineRunner {
 
+    static final String LEGACY_OWNER_MIGRATION = "legacy-owner-backfill";
+
     private final BorrowerRepository borrowerRepository;
     private final LoanRepository loanRepository;
     private final AppUserRepository userRepository;
+    private final LedgerVersionRepository ledgerVersionRepository;
+    private final LedgerVersionService ledgerVersionService;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
 
     public DataMigrationRunner(BorrowerRepository borrowerRepository, LoanRepository loanRepository,
-            AppUserRepository userRepository) {
+            AppUserRepository userRepository, LedgerVersionRepository ledgerVersionRepository,
+            LedgerVersionService ledgerVersionService, DataMigrationRepository dataMigrationRepository,
+            TransactionTemplate transactionTemplate, @Value("${app.data-migration.chunk-size}") int chunkSize) {
         this.borrowerRepository = borrowerRepository;
         this.loanRepository = loanRepository;
         this.userRepository = userRepository;
+        this.ledgerVersionRepository = ledgerVersionRepository;
+        this.ledgerVersionService = ledgerVersionService;
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
     }
 
     @Override
-    @Transactional
-    public void run(String... args) throws Exception {
-        log.info("Starting DataMigrationRunner to check for orphaned records...");
-
-        List<Borrower> orphanedBorrowers = borrowerRepository.findByUserIsNull();
-        List<Loan> orphanedLoans = loanRepository.findByUserIsNull();
-
-        if (orphanedBorrowers.isEmpty() && orphanedLoans.isEmpty()) {
-            log.info("No orphaned records found. Data migration skipped.");
+    public void run(String... args) {
+        if (dataMigrationRepository.existsById(LEGACY_OWNER_MIGRATION)) {
+            log.debug("Data migration {} already completed, skipping", LEGACY_OWNER_MIGRATION);
             return;
         }
+        long started = System.nanoTime();
+        log.info("Starting data migration {}", LEGACY_OWNER_MIGRATION);
 
-        List<AppUser> allUsers = userRepository.findAll();
-        if (allUsers.isEmpty()) {
-            log.warn(
-                    "Found orphaned records, but no AppUser exists in the database to assign them to. Skipping migration.");
-            return;
+        int ledgerVersions = transactionTemplate.execute(status -> ledgerVersionRepository.backfillMissing());
+        if (ledgerVersions > 0) {
+            log.info("Created ledger versions for {} existing users", ledgerVersions);
         }
 
-        // Just take the first registered user to assume ownership of all legacy data
-        AppUser legacyOwner = allUsers.get(0);
-        log.info("Assigning {} orphaned borrowers and {} orphaned loans to default user: {}",
-                orphanedBorrowers.size(), orphanedLoans.size(), legacyOwner.getUsername());
-
-        for (Borrower b : orphanedBorrowers) {
-            b.setUser(legacyOwner);
-            borrowerRepository.save(b);
+        boolean orphans = borrowerRepository.existsByUserIsNull() || loanRepository.existsByUserIsNull();
+        if (orphans) {
+            Optional<Long> legacyOwner = userRepository.findFirstUserId();
+            if (legacyOwner.isEmpty()) {
+                // Not marked complete, so the next boot tries again once someone has signed up
+                log.warn("Found orphaned records, but no AppUser exists in the database to assign them to. "
+                        + "Skipping migration.");
+                return;
+            }
+            long borrowers = assignInChunks(legacyOwner.get(), borrowerRepository::assignOrphansTo);
+            long loans = assignInChunks(legacyOwner.get(), loanRepository::assignOrphansTo);
+            log.info("Assigned {} orphaned borrowers and {} orphaned loans to user ID {}",
+                    borrowers, loans, legacyOwner.get());
         }
 
-        for (Loan l : orphanedLoans) {
-            l.setUser(legacyOwner);
-            loanRepository.save(l);
+        int marked = transactionTemplate.execute(status ->
+                dataMigrationRepository.markCompleted(LEGACY_OWNER_MIGRATION, LocalDateTime.now()));
+        if (marked == 0) {
+            log.info("Data migration {} was also completed by another instance", LEGACY_OWNER_MIGRATION);
         }
+        log.info("Data migration {} completed in {} ms", LEGACY_OWNER_MIGRATION,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Each chunk bumps the owner's ledger version in the same transaction and stamps it on the rows, so
+    // delta sync clients pick the handed-over records up like any other write
+    private long assignInChunks(Long ownerId, ChunkUpdate update) {
+        long total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status ->
+                    update.apply(ownerId, ledgerVersionService.bump(ownerId), chunkSize));
+            total += updated;
+        } while (updated == chunkSize);
+        return total;
+    }
 
-        log.info("Legacy Data Migration completed successfully.");
+    @FunctionalInterface
+    private interface ChunkUpdate {
+        int apply(Long ownerId, Long changeSeq, int limit);
     }
 }
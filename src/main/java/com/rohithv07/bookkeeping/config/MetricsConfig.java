@@ -0,0 +1,20 @@
+package com.rohithv07.bookkeeping.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Controllers are already timed by Spring MVC ({@code http.server.requests}, tagged by URI template,
+ * method and status), HikariCP and Hibernate statistics are bound by Boot. This adds the aspect behind
+ * {@code @Timed("bookkeeping.service")} on the service implementations, tagged by class and method.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
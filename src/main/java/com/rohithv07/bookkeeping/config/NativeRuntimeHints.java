@@ -0,0 +1,98 @@
+package com.rohithv07.bookkeeping.config;
+
+import com.rohithv07.bookkeeping.dto.BatchItemResult;
+import com.rohithv07.bookkeeping.dto.BatchRequest;
+import com.rohithv07.bookkeeping.dto.BatchResponse;
+import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.CursorPage;
+import com.rohithv07.bookkeeping.dto.ExportFormat;
+import com.rohithv07.bookkeeping.dto.LedgerChange;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryGroup;
+import com.rohithv07.bookkeeping.dto.LoginRequest;
+import com.rohithv07.bookkeeping.dto.OverdueLoanCandidate;
+import com.rohithv07.bookkeeping.dto.RepaymentRequest;
+import com.rohithv07.bookkeeping.dto.SignupRequest;
+import com.rohithv07.bookkeeping.dto.SyncResponse;
+import com.rohithv07.bookkeeping.dto.TombstoneDto;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (and recorded for AOT on the JVM). Spring infers
+ * hints for controller signatures, but not for the types below: payloads nested in generic wrappers or
+ * sent as SSE data, JPQL constructor expressions, and libraries that load their implementation by name.
+ * Hibernate, Caffeine and the JDBC drivers are covered by the GraalVM reachability metadata repository.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Lombok DTOs Jackson reads and writes: fields, accessors, builders and no-args constructors
+    private static final Class<?>[] JSON_TYPES = {
+            BatchItemResult.class, BatchRequest.class, BatchResponse.class, BorrowerDto.class, CursorPage.class,
+            ExportFormat.class, LedgerChange.class, LedgerChange.Type.class, LoanDto.class, LoanSummaryDto.class,
+            LoanSummaryGroup.class, LoginRequest.class, RepaymentRequest.class, SignupRequest.class,
+            SyncResponse.class, TombstoneDto.class
+    };
+
+    // Instantiated by Hibernate from "SELECT new ...(...)" queries
+    private static final Class<?>[] QUERY_PROJECTIONS = {
+            LoanDto.class, BorrowerDto.class, LoanSummaryGroup.class, OverdueLoanCandidate.class, TombstoneDto.class
+    };
+
+    // Jwts, Keys and the Jackson (de)serializer are found with Class.forName, not referenced from the API jar
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    // Local bucket and state implementations, chosen at build() time by synchronization strategy and math type
+    static final List<String> BUCKET4J_TYPES = List.of(
+            "io.github.bucket4j.local.LockFreeBucket",
+            "io.github.bucket4j.local.SynchronizedBucket",
+            "io.github.bucket4j.local.ThreadUnsafeBucket",
+            "io.github.bucket4j.BucketState64BitsInteger",
+            "io.github.bucket4j.BucketStateIEEE754");
+
+    private static final String CACHING_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+        for (Class<?> projection : QUERY_PROJECTIONS) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.Serializer");
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.Deserializer");
+
+        for (String type : BUCKET4J_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+        }
+
+        // Read from the classpath at runtime: Caffeine's JCache regions and the Flyway migrations
+        hints.resources().registerPattern("application.conf");
+        hints.resources().registerPattern("db/migration/*/*.sql");
+        // Named in hibernate.javax.cache.provider and instantiated from that string
+        hints.reflection().registerType(TypeReference.of(CACHING_PROVIDER), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
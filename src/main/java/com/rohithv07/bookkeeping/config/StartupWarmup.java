@@ -0,0 +1,240 @@
+package com.rohithv07.bookkeeping.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LedgerVersionRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.JwtUtil;
+import com.rohithv07.bookkeeping.security.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional JIT warm-up run once the application has started. The hot request paths (JWT signing and
+ * verification, Jackson on {@link LoanDto} lists, the loan and borrower read queries, BCrypt) are run on
+ * synthetic data until they are compiled, or until the time budget runs out. Queries are read-only and
+ * filter on a user id that never exists, so nothing is written and no real rows are read.
+ * {@link WarmupHealthIndicator} keeps the readiness group OUT_OF_SERVICE until this finishes, so the
+ * platform only routes traffic to a warm instance.
+ */
+@Component
+@Slf4j
+public class StartupWarmup {
+
+    public enum Phase {
+        DISABLED,
+        PENDING,
+        RUNNING,
+        COMPLETED
+    }
+
+    /**
+     * Per step: the first, cold call and the average of the last iterations, i.e. roughly what the
+     * first real request would have paid without the warm-up and what it pays now.
+     */
+    public record StepTiming(double firstMillis, double warmedMillis) {
+        public double speedup() {
+            return warmedMillis > 0 ? firstMillis / warmedMillis : 0;
+        }
+    }
+
+    public record Report(long durationMillis, int iterations, boolean budgetExhausted,
+            Map<String, StepTiming> steps) {
+    }
+
+    static final String METRIC = "startup.warmup";
+
+    // A user id no account can have: every query runs its full plan and matches nothing
+    private static final Long SYNTHETIC_USER_ID = -1L;
+    private static final String SYNTHETIC_PASSWORD = "Warmup-Passw0rd";
+    private static final int SYNTHETIC_PAGE_SIZE = 50;
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final LoanRepository loanRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final LedgerVersionRepository ledgerVersionRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration timeBudget;
+    private final int iterations;
+    private final int passwordHashes;
+
+    private final List<LoanDto> syntheticLoans;
+    private volatile Phase phase;
+    private volatile Report report;
+
+    public StartupWarmup(JwtUtil jwtUtil, ObjectMapper objectMapper, LoanRepository loanRepository,
+            BorrowerRepository borrowerRepository, LedgerVersionRepository ledgerVersionRepository,
+            PasswordHashingService passwordHashingService, MeterRegistry meterRegistry,
+            @Value("${app.warmup.enabled}") boolean enabled,
+            @Value("${app.warmup.time-budget}") Duration timeBudget,
+            @Value("${app.warmup.iterations}") int iterations,
+            @Value("${app.warmup.password-hashes}") int passwordHashes) {
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.loanRepository = loanRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.ledgerVersionRepository = ledgerVersionRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.timeBudget = timeBudget;
+        this.iterations = iterations;
+        this.passwordHashes = passwordHashes;
+        this.syntheticLoans = syntheticLoans();
+        this.phase = enabled ? Phase.PENDING : Phase.DISABLED;
+    }
+
+    // Off the startup thread: the context is already up, only readiness waits for this
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofPlatform().name("startup-warmup").daemon().start(this::run);
+        }
+    }
+
+    public Phase phase() {
+        return phase;
+    }
+
+    public Report report() {
+        return report;
+    }
+
+    void run() {
+        phase = Phase.RUNNING;
+        long started = System.nanoTime();
+        long deadline = started + timeBudget.toNanos();
+        Map<String, Runnable> steps = steps();
+        Map<String, double[]> timings = new LinkedHashMap<>();
+        steps.keySet().forEach(name -> timings.put(name, new double[iterations]));
+        double[] hashTimings = new double[passwordHashes];
+
+        int completed = 0;
+        int hashes = 0;
+        try {
+            while (completed < iterations && System.nanoTime() < deadline) {
+                for (Map.Entry<String, Runnable> step : steps.entrySet()) {
+                    long stepStarted = System.nanoTime();
+                    step.getValue().run();
+                    timings.get(step.getKey())[completed] = (System.nanoTime() - stepStarted) / 1_000_000.0;
+                }
+                completed++;
+            }
+            hashes = warmPasswordHashing(hashTimings, deadline);
+        } catch (RuntimeException e) {
+            // A failed warm-up only costs speed, never availability
+            log.warn("Startup warm-up stopped early: {}", e.getMessage());
+        }
+
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        boolean budgetExhausted = System.nanoTime() >= deadline;
+        Map<String, StepTiming> summary = new LinkedHashMap<>();
+        int measured = completed;
+        timings.forEach((name, samples) -> summary.put(name, summarize(samples, measured)));
+        summary.put("bcrypt", summarize(hashTimings, hashes));
+        report = new Report(durationMillis, completed, budgetExhausted, summary);
+        Timer.builder(METRIC)
+                .description("Time spent warming up the JIT before reporting ready")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(durationMillis));
+        phase = Phase.COMPLETED;
+
+        log.info("Startup warm-up finished in {} ms after {} iterations{}", durationMillis, completed,
+                budgetExhausted ? " (time budget exhausted)" : "");
+        summary.forEach((name, timing) -> log.info("  {}: first call {} ms, warmed {} ms ({}x faster)", name,
+                String.format("%.2f", timing.firstMillis()), String.format("%.3f", timing.warmedMillis()),
+                String.format("%.0f", timing.speedup())));
+    }
+
+    private Map<String, Runnable> steps() {
+        Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("jwt", () -> {
+            String token = jwtUtil.generateToken("warmup", SYNTHETIC_USER_ID);
+            jwtUtil.parseVerifiedClaims(token);
+        });
+        steps.put("jackson", () -> {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(syntheticLoans);
+                objectMapper.readValue(json, LoanDto[].class);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not round-trip synthetic loans", e);
+            }
+        });
+        steps.put("queries", () -> {
+            PageRequest page = PageRequest.of(0, SYNTHETIC_PAGE_SIZE + 1);
+            loanRepository.findUnpaidPageByUserId(SYNTHETIC_USER_ID, page);
+            loanRepository.findDtoByIdAndUserId(SYNTHETIC_USER_ID, SYNTHETIC_USER_ID);
+            loanRepository.summarizeByUserId(SYNTHETIC_USER_ID, LoanStatus.ACTIVE, LoanStatus.OVERDUE,
+                    LocalDate.now());
+            borrowerRepository.findPageByUserId(SYNTHETIC_USER_ID, page);
+            ledgerVersionRepository.findVersionByUserId(SYNTHETIC_USER_ID);
+        });
+        return steps;
+    }
+
+    // BCrypt is slow by design and reaches compiled code within a few hashes. Goes through the bounded
+    // hashing pool like a login would, so its threads are started too.
+    private int warmPasswordHashing(double[] samples, long deadline) {
+        if (samples.length == 0) {
+            return 0;
+        }
+        String hash = passwordHashingService.encode(SYNTHETIC_PASSWORD).join();
+        int hashes = 0;
+        while (hashes < samples.length && System.nanoTime() < deadline) {
+            long stepStarted = System.nanoTime();
+            passwordHashingService.matches(SYNTHETIC_PASSWORD, hash).join();
+            samples[hashes++] = (System.nanoTime() - stepStarted) / 1_000_000.0;
+        }
+        return hashes;
+    }
+
+    // The warmed figure averages the last tenth of the iterations, which have settled on compiled code
+    private static StepTiming summarize(double[] samples, int count) {
+        if (count == 0) {
+            return new StepTiming(0, 0);
+        }
+        int tail = Math.max(1, count / 10);
+        double sum = 0;
+        for (int i = count - tail; i < count; i++) {
+            sum += samples[i];
+        }
+        return new StepTiming(samples[0], sum / tail);
+    }
+
+    private static List<LoanDto> syntheticLoans() {
+        List<LoanDto> loans = new ArrayList<>(SYNTHETIC_PAGE_SIZE);
+        for (int i = 0; i < SYNTHETIC_PAGE_SIZE; i++) {
+            loans.add(LoanDto.builder()
+                    .id((long) i)
+                    .borrowerId((long) i % 7)
+                    .borrowerName("Warm-up Borrower " + i % 7)
+                    .amount(new BigDecimal("125.50"))
+                    .currency("USD")
+                    .dateLent(LocalDate.of(2024, 1, 1))
+                    .dueDate(LocalDate.of(2024, 2, 1).plusDays(i))
+                    .status(LoanStatus.ACTIVE)
+                    .build());
+        }
+        return loans;
+    }
+}
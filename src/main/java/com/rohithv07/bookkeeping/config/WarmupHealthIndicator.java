@@ -0,0 +1,39 @@
+package com.rohithv07.bookkeeping.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * The "warmup" member of the readiness group: OUT_OF_SERVICE while {@link StartupWarmup} is pending or
+ * running, so {@code /actuator/health/readiness} answers 503 until the instance is warm. Reports UP
+ * straight away when the warm-up is disabled.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup startupWarmup;
+
+    public WarmupHealthIndicator(StartupWarmup startupWarmup) {
+        this.startupWarmup = startupWarmup;
+    }
+
+    @Override
+    public Health health() {
+        StartupWarmup.Phase phase = startupWarmup.phase();
+        if (phase == StartupWarmup.Phase.DISABLED) {
+            return Health.up().withDetail("phase", phase).build();
+        }
+        StartupWarmup.Report report = startupWarmup.report();
+        if (phase != StartupWarmup.Phase.COMPLETED || report == null) {
+            return Health.outOfService().withDetail("phase", phase).build();
+        }
+        return Health.up()
+                .withDetail("phase", phase)
+                .withDetail("durationMillis", report.durationMillis())
+                .withDetail("iterations", report.iterations())
+                .withDetail("budgetExhausted", report.budgetExhausted())
+                .withDetail("steps", report.steps())
+                .build();
+    }
+}
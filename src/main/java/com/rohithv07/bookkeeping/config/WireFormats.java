@@ -0,0 +1,54 @@
+package com.rohithv07.bookkeeping.config;
+
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Media types the list endpoints can be negotiated into besides plain JSON, and the ETag variant of
+ * each so that caches never answer one representation's revalidation with another's.
+ */
+public final class WireFormats {
+
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    // {"rows": n, "columns": {"id": [...], "amount": [...], ...}}: field names once, then one array per field
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.bookkeeping.columnar+json";
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType(COLUMNAR_JSON_VALUE);
+
+    private WireFormats() {
+    }
+
+    /**
+     * Mirrors content negotiation: the most preferred acceptable type wins, and wildcards resolve to JSON.
+     * Returns an empty string for JSON.
+     */
+    public static String etagVariant(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(acceptHeader));
+        } catch (IllegalArgumentException e) {
+            // Negotiation will reject the header anyway
+            return "";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            if (COLUMNAR_JSON.equalsTypeAndSubtype(mediaType)) {
+                return "columnar";
+            }
+            if (CBOR.equalsTypeAndSubtype(mediaType)) {
+                return "cbor";
+            }
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()
+                    || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)) {
+                return "";
+            }
+        }
+        return "";
+    }
+}
@@ -5,13 +5,20 @@ import com.rohithv07.bookkeeping.dto.SignupRequest;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
 import com.rohithv07.bookkeeping.security.JwtUtil;
+import com.rohithv07.bookkeeping.security.LoginRateLimiter;
+import com.rohithv07.bookkeeping.security.PasswordHashingService;
+import com.rohithv07.bookkeeping.service.AccountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,81 +26,87 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Refill;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
+        static final String LOGIN_METRIC = "auth.login.attempts";
+
         private final JwtUtil jwtUtil;
         private final AppUserRepository userRepository;
-        private final PasswordEncoder passwordEncoder;
-        private final Map<String, Bucket> loginBuckets = new ConcurrentHashMap<>();
+        private final PasswordHashingService passwordHashingService;
+        private final LoginRateLimiter loginRateLimiter;
+        private final AccountService accountService;
+        private final Executor taskExecutor;
+        private final Counter loginSuccesses;
+        private final Counter loginFailures;
+        private final Counter loginsThrottled;
 
         @Value("${app.security.jwt.expiration}")
         private long jwtExpiration;
 
-        public AuthController(JwtUtil jwtUtil, AppUserRepository userRepository, PasswordEncoder passwordEncoder) {
+        public AuthController(JwtUtil jwtUtil, AppUserRepository userRepository,
+                        PasswordHashingService passwordHashingService, LoginRateLimiter loginRateLimiter,
+                        AccountService accountService, MeterRegistry meterRegistry,
+                        @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
                 this.jwtUtil = jwtUtil;
                 this.userRepository = userRepository;
-                this.passwordEncoder = passwordEncoder;
+                this.passwordHashingService = passwordHashingService;
+                this.loginRateLimiter = loginRateLimiter;
+                this.accountService = accountService;
+                this.taskExecutor = taskExecutor;
+                this.loginSuccesses = loginCounter(meterRegistry, "success");
+                this.loginFailures = loginCounter(meterRegistry, "invalid_credentials");
+                this.loginsThrottled = loginCounter(meterRegistry, "throttled");
+        }
+
+        private static Counter loginCounter(MeterRegistry meterRegistry, String outcome) {
+                return Counter.builder(LOGIN_METRIC)
+                                .description("Login attempts by outcome")
+                                .tag("outcome", outcome)
+                                .register(meterRegistry);
         }
 
+        // BCrypt runs on the bounded hashing pool; the servlet thread is released while it works. The
+        // database writes then move to the application task executor so hashing threads only ever hash.
         @PostMapping("/signup")
-        public ResponseEntity<String> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        public CompletableFuture<ResponseEntity<String>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
                 if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                        .body("{\"message\": \"Error: Username is already taken!\"}");
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body("{\"message\": \"Error: Username is already taken!\"}"));
                 }
 
-                // Create new user's account
-                AppUser user = AppUser.builder()
-                                .username(signUpRequest.getUsername())
-                                .password(passwordEncoder.encode(signUpRequest.getPassword()))
-                                .build();
-
-                userRepository.save(user);
+                return passwordHashingService.encode(signUpRequest.getPassword()).thenApplyAsync(encodedPassword -> {
+                        // Create new user's account
+                        accountService.register(signUpRequest.getUsername(), encodedPassword);
 
-                return ResponseEntity.ok("{\"message\": \"User registered successfully!\"}");
+                        return ResponseEntity.ok("{\"message\": \"User registered successfully!\"}");
+                }, taskExecutor);
         }
 
         @PostMapping("/login")
-        public ResponseEntity<String> login(@Valid @RequestBody LoginRequest loginRequest) {
+        public CompletableFuture<ResponseEntity<String>> login(@Valid @RequestBody LoginRequest loginRequest,
+                        HttpServletRequest request) {
                 String inputUsername = loginRequest.getUsername();
-                Bucket bucket = loginBuckets.computeIfAbsent(inputUsername, k -> Bucket.builder()
-                                .addLimit(Bandwidth.classic(5, Refill.greedy(5, Duration.ofMinutes(1))))
-                                .build());
 
-                if (!bucket.tryConsume(1)) {
-                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                                        .body("{\"message\": \"Too many login attempts. Please try again later.\"}");
+                // Remote address is the real client when forwarded headers come from a trusted proxy
+                if (!loginRateLimiter.tryAcquire(inputUsername, request.getRemoteAddr())) {
+                        loginsThrottled.increment();
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                        .body("{\"message\": \"Too many login attempts. Please try again later.\"}"));
                 }
 
                 Optional<AppUser> userOptional = userRepository.findByUsername(inputUsername);
-
-                if (userOptional.isPresent()
-                                && passwordEncoder.matches(loginRequest.getPassword(),
-                                                userOptional.get().getPassword())) {
-                        String token = jwtUtil.generateToken(userOptional.get().getUsername());
-
-                        ResponseCookie cookie = ResponseCookie.from("jwt", token)
-                                        .httpOnly(true)
-                                        .secure(true) // Typically true in production for HTTPS
-                                        .path("/")
-                                        .maxAge(Duration.ofMillis(jwtExpiration))
-                                        .sameSite("None") // "None" if cross-domain in prod, but needs Secure=true
-                                        .build();
-
-                        return ResponseEntity.ok()
-                                        .header(HttpHeaders.SET_COOKIE, cookie.toString())
-                                        .body("{\"message\": \"Login successful\", \"token\": \"" + token + "\"}");
+                if (userOptional.isEmpty()) {
+                        return CompletableFuture.completedFuture(invalidCredentials());
                 }
 
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"message\": \"Invalid credentials\"}");
+                AppUser user = userOptional.get();
+                return passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())
+                                .thenApply(matches -> matches ? loginSuccess(user) : invalidCredentials());
         }
 
         @PostMapping("/logout")
@@ -110,4 +123,26 @@ public class AuthController {
                                 .header(HttpHeaders.SET_COOKIE, cookie.toString())
                                 .body("{\"message\": \"Logout successful\"}");
         }
+
+        private ResponseEntity<String> loginSuccess(AppUser user) {
+                loginSuccesses.increment();
+                String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+
+                ResponseCookie cookie = ResponseCookie.from("jwt", token)
+                                .httpOnly(true)
+                                .secure(true) // Typically true in production for HTTPS
+                                .path("/")
+                                .maxAge(Duration.ofMillis(jwtExpiration))
+                                .sameSite("None") // "None" if cross-domain in prod, but needs Secure=true
+                                .build();
+
+                return ResponseEntity.ok()
+                                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                                .body("{\"message\": \"Login successful\", \"token\": \"" + token + "\"}");
+        }
+
+        private ResponseEntity<String> invalidCredentials() {
+                loginFailures.increment();
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"message\": \"Invalid credentials\"}");
+        }
 }
@@ -1,10 +1,20 @@
 package com.rohithv07.bookkeeping.controller;
 
+import com.rohithv07.bookkeeping.config.WireFormats;
 import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.BatchRequest;
+import com.rohithv07.bookkeeping.dto.BatchResponse;
+import com.rohithv07.bookkeeping.dto.CursorPage;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
 import com.rohithv07.bookkeeping.service.BorrowerService;
+import com.rohithv07.bookkeeping.service.LedgerVersionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
 import java.util.List;
@@ -16,9 +26,20 @@ public class BorrowerController {
 
     // Explicit constructor injection without Lombok magic
     private final BorrowerService borrowerService;
+    private final CurrentUserResolver currentUserResolver;
+    private final LedgerVersionService ledgerVersionService;
 
-    public BorrowerController(BorrowerService borrowerService) {
+    @Value("${app.pagination.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size}")
+    private int maxPageSize;
+
+    public BorrowerController(BorrowerService borrowerService, CurrentUserResolver currentUserResolver,
+            LedgerVersionService ledgerVersionService) {
         this.borrowerService = borrowerService;
+        this.currentUserResolver = currentUserResolver;
+        this.ledgerVersionService = ledgerVersionService;
     }
 
     @PostMapping
@@ -27,10 +48,34 @@ public class BorrowerController {
         return ResponseEntity.ok(borrowerService.addBorrower(borrowerDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse<BorrowerDto>> addBorrowers(
+            @Valid @RequestBody BatchRequest<BorrowerDto> request) {
+        log.info("REST request to add a batch of {} borrowers", request.getItems().size());
+        return ResponseEntity.ok(borrowerService.addBorrowers(request.getItems()));
+    }
+
     @GetMapping
-    public ResponseEntity<List<BorrowerDto>> getAllBorrowers() {
-        log.info("REST request to get all borrowers");
-        return ResponseEntity.ok(borrowerService.getAllBorrowers());
+    public ResponseEntity<List<BorrowerDto>> getAllBorrowers(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        log.info("REST request to get a page of borrowers");
+        // Answered from the ledger version alone when the client's copy is current: no borrowers query, no body
+        String etag = ledgerVersionService.currentETag(currentUserResolver.currentUserId(),
+                WireFormats.etagVariant(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPage<BorrowerDto> page = borrowerService.getAllBorrowers(cursor, resolvePageSize(size));
+
+        // checkNotModified has already set the ETag; no-cache makes the browser revalidate on every fetch
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                // The same URL answers in JSON, CBOR or columnar JSON depending on Accept
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/{id}")
@@ -38,4 +83,11 @@ public class BorrowerController {
         log.info("REST request to get borrower by ID: {}", id);
         return ResponseEntity.ok(borrowerService.getBorrowerById(id));
     }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
 }
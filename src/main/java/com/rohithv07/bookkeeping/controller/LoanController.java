@@ -1,10 +1,29 @@
 package com.rohithv07.bookkeeping.controller;
 
+import com.rohithv07.bookkeeping.config.WireFormats;
+import com.rohithv07.bookkeeping.dto.BatchRequest;
+import com.rohithv07.bookkeeping.dto.BatchResponse;
+import com.rohithv07.bookkeeping.dto.CursorPage;
+import com.rohithv07.bookkeeping.dto.ExportFormat;
 import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryDto;
+import com.rohithv07.bookkeeping.exception.InvalidRequestException;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.service.LedgerEventBroadcaster;
+import com.rohithv07.bookkeeping.service.LedgerExportService;
+import com.rohithv07.bookkeeping.service.LedgerVersionService;
 import com.rohithv07.bookkeeping.service.LoanService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
 import com.rohithv07.bookkeeping.dto.RepaymentRequest;
@@ -17,9 +36,25 @@ public class LoanController {
 
     // Explicit constructor injection without Lombok magic
     private final LoanService loanService;
+    private final LedgerExportService ledgerExportService;
+    private final CurrentUserResolver currentUserResolver;
+    private final LedgerVersionService ledgerVersionService;
+    private final LedgerEventBroadcaster ledgerEventBroadcaster;
 
-    public LoanController(LoanService loanService) {
+    @Value("${app.pagination.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size}")
+    private int maxPageSize;
+
+    public LoanController(LoanService loanService, LedgerExportService ledgerExportService,
+            CurrentUserResolver currentUserResolver, LedgerVersionService ledgerVersionService,
+            LedgerEventBroadcaster ledgerEventBroadcaster) {
         this.loanService = loanService;
+        this.ledgerExportService = ledgerExportService;
+        this.currentUserResolver = currentUserResolver;
+        this.ledgerVersionService = ledgerVersionService;
+        this.ledgerEventBroadcaster = ledgerEventBroadcaster;
     }
 
     @PostMapping
@@ -28,10 +63,62 @@ public class LoanController {
         return ResponseEntity.ok(loanService.addLoan(loanDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse<LoanDto>> addLoans(@Valid @RequestBody BatchRequest<LoanDto> request) {
+        log.info("REST request to add a batch of {} loans", request.getItems().size());
+        return ResponseEntity.ok(loanService.addLoans(request.getItems()));
+    }
+
     @GetMapping
-    public ResponseEntity<List<LoanDto>> getAllActiveLoans() {
-        log.info("REST request to get all active loans");
-        return ResponseEntity.ok(loanService.getActiveLoans());
+    public ResponseEntity<List<LoanDto>> getAllActiveLoans(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        log.info("REST request to get a page of active loans");
+        if (isNotModified(request)) {
+            return null;
+        }
+        return pageResponse(loanService.getActiveLoans(cursor, resolvePageSize(size)));
+    }
+
+    // Loans flagged by the overdue detection job, in due date order
+    @GetMapping("/overdue")
+    public ResponseEntity<List<LoanDto>> getOverdueLoans(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        log.info("REST request to get a page of overdue loans");
+        if (isNotModified(request)) {
+            return null;
+        }
+        return pageResponse(loanService.getOverdueLoans(cursor, resolvePageSize(size)));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<LoanSummaryDto> getSummary() {
+        log.info("REST request to get the loan portfolio summary");
+        return ResponseEntity.ok(loanService.getSummary());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLedger(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format)
+                .orElseThrow(() -> new InvalidRequestException("Unsupported export format: " + format));
+        // The body is written later on an async thread, so resolve the owner while still on the request thread
+        Long userId = currentUserResolver.currentUserId();
+        log.info("REST request to export the ledger as {}", exportFormat);
+
+        StreamingResponseBody body = out -> ledgerExportService.exportLedger(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("ledger." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        log.info("REST request to stream ledger events");
+        // Changes to this user's loans and borrowers are pushed as they commit, instead of refetching the list
+        return ledgerEventBroadcaster.subscribe(currentUserResolver.currentUserId());
     }
 
     @GetMapping("/{id}")
@@ -53,4 +140,30 @@ public class LoanController {
         loanService.repayLoan(id, request.getAmount());
         return ResponseEntity.noContent().build();
     }
+
+    // Answered from the ledger version alone when the client's copy is current: no loans query, no body
+    private boolean isNotModified(WebRequest request) {
+        String etag = ledgerVersionService.currentETag(currentUserResolver.currentUserId(),
+                WireFormats.etagVariant(request.getHeader(HttpHeaders.ACCEPT)));
+        return request.checkNotModified(etag);
+    }
+
+    private ResponseEntity<List<LoanDto>> pageResponse(CursorPage<LoanDto> page) {
+        // checkNotModified has already set the ETag; no-cache makes the browser revalidate on every fetch
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                // The same URL answers in JSON, CBOR or columnar JSON depending on Accept
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
 }
@@ -0,0 +1,46 @@
+package com.rohithv07.bookkeeping.controller;
+
+import com.rohithv07.bookkeeping.dto.SyncResponse;
+import com.rohithv07.bookkeeping.service.SyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+@Slf4j
+public class SyncController {
+
+    // Explicit constructor injection without Lombok magic
+    private final SyncService syncService;
+
+    @Value("${app.pagination.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size}")
+    private int maxPageSize;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // Without since the whole ledger is returned a page at a time; with the seq of a previous response only
+    // what changed after it
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) Long since,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        log.info("REST request to sync the ledger since {}", since);
+        return ResponseEntity.ok(syncService.sync(since, cursor, resolvePageSize(size)));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
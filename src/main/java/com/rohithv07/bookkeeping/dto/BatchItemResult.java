@@ -0,0 +1,29 @@
+package com.rohithv07.bookkeeping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult<T> {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    // Position of the item in the submitted batch
+    private int index;
+
+    private Status status;
+
+    // The created resource, null when the item failed
+    private T item;
+
+    // Reason the item was rejected, null when it was created
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.rohithv07.bookkeeping.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest<T> {
+
+    public static final int MAX_ITEMS = 1000;
+
+    // Every item is validated up front; any constraint violation rejects the whole payload
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " items can be submitted per batch")
+    @Valid
+    private List<T> items;
+}
@@ -0,0 +1,21 @@
+package com.rohithv07.bookkeeping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse<T> {
+    private int created;
+
+    private int failed;
+
+    // One entry per submitted item, in submission order
+    private List<BatchItemResult<T>> results;
+}
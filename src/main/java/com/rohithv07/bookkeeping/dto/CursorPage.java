@@ -0,0 +1,23 @@
+package com.rohithv07.bookkeeping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    // Response header carrying the continuation token on list endpoints
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+
+    // Opaque continuation token for the next page, null when this is the last page
+    private String nextCursor;
+}
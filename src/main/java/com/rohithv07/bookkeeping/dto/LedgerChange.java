@@ -0,0 +1,60 @@
+package com.rohithv07.bookkeeping.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Payload of one GET /api/loans/events message; only the fields relevant to the type are set
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LedgerChange {
+
+    public enum Type {
+        LOAN_CREATED("loan-created"),
+        LOANS_CREATED("loans-created"),
+        LOAN_REPAID_PARTIAL("loan-repaid-partial"),
+        LOAN_REPAID_FULL("loan-repaid-full"),
+        LOAN_DELETED("loan-deleted"),
+        LOANS_OVERDUE("loans-overdue"),
+        BORROWER_CREATED("borrower-created"),
+        BORROWERS_CREATED("borrowers-created");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        // Used both as the SSE event name and as the serialized type
+        @JsonValue
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private Type type;
+
+    // Ledger version after this change, usable as ?since= for GET /api/sync
+    private Long seq;
+
+    private Long loanId;
+
+    // The amount repaid, for repayment events
+    private BigDecimal amount;
+
+    // The created loan or borrower, for single-item create events
+    private LoanDto loan;
+
+    private BorrowerDto borrower;
+
+    // Number of items created or flagged, for batch events; clients refetch rather than receive every item
+    private Integer count;
+}
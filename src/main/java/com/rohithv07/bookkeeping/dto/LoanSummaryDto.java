@@ -0,0 +1,29 @@
+package com.rohithv07.bookkeeping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSummaryDto {
+    private long totalLoans;
+
+    // Outstanding loans, overdue ones included
+    private long activeLoans;
+
+    // Loans flagged OVERDUE, plus active loans whose due date has passed but are not flagged yet
+    private long overdueLoans;
+
+    // Sum of outstanding (active and overdue) loan amounts, keyed by currency code
+    private Map<String, BigDecimal> outstandingByCurrency;
+
+    private List<LoanSummaryGroup> groups;
+}
@@ -0,0 +1,24 @@
+package com.rohithv07.bookkeeping.dto;
+
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One (currency, status) row of the summary GROUP BY; constructor order matches LoanRepository.summarizeByUserId
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSummaryGroup {
+    private String currency;
+
+    private LoanStatus status;
+
+    private Long loanCount;
+
+    private BigDecimal totalAmount;
+
+    private Long overdueCount;
+}
@@ -1,6 +1,7 @@
 package com.rohithv07.bookkeeping.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class LoginRequest {
     @NotBlank(message = "Username cannot be blank")
+    @Size(max = 255, message = "Username must be at most 255 characters long")
     private String username;
 
     @NotBlank(message = "Password cannot be blank")
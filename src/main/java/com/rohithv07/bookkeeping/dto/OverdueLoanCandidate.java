@@ -0,0 +1,20 @@
+package com.rohithv07.bookkeeping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Just the keys the overdue job needs per loan; constructor order matches LoanRepository.findOverdueCandidates
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueLoanCandidate {
+    private Long id;
+
+    // Null for legacy loans without an owner
+    private Long userId;
+
+    private LocalDate dueDate;
+}
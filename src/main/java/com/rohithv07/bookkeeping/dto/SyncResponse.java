@@ -0,0 +1,31 @@
+package com.rohithv07.bookkeeping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // Pass back as ?since= on the next sync
+    private Long seq;
+
+    // True when the lists are the whole ledger and replace the client's copy rather than patch it
+    private boolean full;
+
+    // Loans and borrowers created or changed after the requested seq, in full
+    private List<LoanDto> loans;
+
+    private List<BorrowerDto> borrowers;
+
+    // Rows removed after the requested seq; empty for a full sync
+    private List<TombstoneDto> tombstones;
+
+    // Full sync only: pass back as ?cursor= for the next page, null on the last one
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.rohithv07.bookkeeping.dto;
+
+import com.rohithv07.bookkeeping.model.LedgerTombstone;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Constructor order matches LedgerTombstoneRepository.findDtosByUserIdAfter
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneDto {
+    private LedgerTombstone.EntityType entityType;
+
+    private Long id;
+
+    // REPAID for loans closed by a full repayment, DELETED otherwise
+    private LedgerTombstone.Reason reason;
+
+    private Long changeSeq;
+}
@@ -5,11 +5,20 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
 @Entity
+// Schema and indexes are owned by the Flyway migrations in db/migration
 @Table(name = "borrowers")
+// Loaded by id for every new loan, so id lookups are served from the cache. Rows do change, and READ_WRITE keeps
+// that safe: an update through Hibernate soft-locks the entry until commit, so readers go to the database rather
+// than see a stale or uncommitted copy, and @Version rejects writes based on an old one. Bulk and native updates
+// evict the region instead. Another instance's copy can still lag up to the region TTL.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "borrowers")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,10 +26,27 @@ import java.util.List;
 @Builder
 public class Borrower {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence ids (one round trip per 50 rows) let Hibernate batch inserts, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrowers_seq")
+    @SequenceGenerator(name = "borrowers_seq", sequenceName = "borrowers_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // Optimistic locking for entity-based writes; the default backfills rows created before the column existed
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Ledger version of the write that last touched this row, for delta sync (GET /api/sync);
+    // rows written before the column existed default to 0 and only appear in a full sync
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    @Builder.Default
+    private Long changeSeq = 0L;
+
     @NotBlank(message = "Name is required")
     private String name;
 
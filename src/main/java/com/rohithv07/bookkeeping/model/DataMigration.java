@@ -0,0 +1,27 @@
+package com.rohithv07.bookkeeping.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completion marker for a one-off data migration run at startup. Once its row exists the migration is
+ * skipped, so later boots pay for a single primary key lookup instead of scanning for work.
+ */
+@Entity
+@Table(name = "data_migrations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataMigration {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,32 @@
+package com.rohithv07.bookkeeping.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Date a batch job has processed up to in the index it walks. Each chunk advances it in the same
+ * transaction as its updates, so an interrupted run resumes at the last committed chunk and a finished
+ * run does not walk the dates before it again.
+ */
+@Entity
+@Table(name = "job_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobWatermark {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "position_date", nullable = false)
+    private LocalDate positionDate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.rohithv07.bookkeeping.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Record of a loan or borrower row that was hard-deleted, kept so delta sync can tell clients to drop
+ * it. Like {@link LedgerVersion} it keeps a plain {@code user_id} column without a foreign key.
+ */
+@Entity
+// Schema and indexes are owned by the Flyway migrations in db/migration
+@Table(name = "ledger_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerTombstone {
+
+    public enum EntityType {
+        LOAN,
+        BORROWER
+    }
+
+    public enum Reason {
+        DELETED,
+        REPAID
+    }
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_tombstones_seq")
+    @SequenceGenerator(name = "ledger_tombstones_seq", sequenceName = "ledger_tombstones_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Plain VARCHAR as in the migrations; Hibernate would otherwise expect H2's native ENUM type
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+}
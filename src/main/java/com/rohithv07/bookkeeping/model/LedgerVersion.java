@@ -0,0 +1,26 @@
+package com.rohithv07.bookkeeping.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user change counter for the whole ledger, bumped by every write to the user's loans or borrowers.
+ * List endpoints derive their ETag from it, so a conditional GET is answered from this one row.
+ * Plain {@code user_id} column without a foreign key: it is a cache validator, not owned data.
+ */
+@Entity
+@Table(name = "ledger_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -5,11 +5,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+// Schema and indexes are owned by the Flyway migrations in db/migration
 @Table(name = "loans")
 @Getter
 @Setter
@@ -18,12 +22,29 @@ import java.time.LocalDate;
 @Builder
 public class Loan {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence ids (one round trip per 50 rows) let Hibernate batch inserts, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+    @SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // Optimistic locking for entity-based writes; the default backfills rows created before the column existed
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Ledger version of the write that last touched this row, for delta sync (GET /api/sync);
+    // rows written before the column existed default to 0 and only appear in a full sync
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    @Builder.Default
+    private Long changeSeq = 0L;
+
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler", "loans" })
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "borrower_id", nullable = false)
     private Borrower borrower;
 
@@ -43,16 +64,23 @@ public class Loan {
     @NotNull(message = "Date lent is required")
     private LocalDate dateLent;
 
+    @Column(name = "due_date")
     private LocalDate dueDate;
 
+    // Plain VARCHAR as in the migrations; Hibernate would otherwise expect H2's native ENUM type
     @Builder.Default
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private LoanStatus status = LoanStatus.ACTIVE;
 
     @PrePersist
     public void prePersist() {
         if (this.dueDate == null && this.dateLent != null) {
-            this.dueDate = this.dateLent.plusMonths(1);
+            this.dueDate = defaultDueDate(this.dateLent);
         }
     }
+
+    public static LocalDate defaultDueDate(LocalDate dateLent) {
+        return dateLent.plusMonths(1);
+    }
 }
@@ -2,5 +2,7 @@ package com.rohithv07.bookkeeping.model;
 
 public enum LoanStatus {
     ACTIVE,
+    // Past its due date and still outstanding; set by OverdueLoanDetector, or on creation when already past due
+    OVERDUE,
     REPAID
 }
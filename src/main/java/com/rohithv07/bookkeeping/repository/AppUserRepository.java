@@ -2,13 +2,20 @@ package com.rohithv07.bookkeeping.repository;
 
 import com.rohithv07.bookkeeping.model.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface AppUserRepository extends JpaRepository<AppUser, Long> {
-    Optional<AppUser> findByUsername(String username);
-
+public interface AppUserRepository extends JpaRepository<AppUser, Long>, AppUserRepositoryCustom {
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.id FROM AppUser u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    // The earliest registered user, read off the primary key index
+    @Query("SELECT MIN(u.id) FROM AppUser u")
+    Optional<Long> findFirstUserId();
 }
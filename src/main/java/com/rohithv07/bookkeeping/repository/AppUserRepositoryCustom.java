@@ -0,0 +1,9 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+
+import java.util.Optional;
+
+public interface AppUserRepositoryCustom {
+    Optional<AppUser> findByUsername(String username);
+}
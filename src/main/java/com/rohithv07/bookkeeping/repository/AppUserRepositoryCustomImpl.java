@@ -0,0 +1,28 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class AppUserRepositoryCustomImpl implements AppUserRepositoryCustom {
+
+    // Explicit constructor injection without Lombok magic
+    private final EntityManager entityManager;
+
+    public AppUserRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Natural-id load instead of a derived query, so a repeated login resolves username -> id -> user from the
+    // second-level cache without a round trip. The transaction keeps the unwrapped session open.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AppUser> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(AppUser.class)
+                .loadOptional(username);
+    }
+}
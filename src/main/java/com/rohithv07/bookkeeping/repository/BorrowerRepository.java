@@ -1,19 +1,76 @@
 package com.rohithv07.bookkeeping.repository;
 
+import com.rohithv07.bookkeeping.dto.BorrowerDto;
 import com.rohithv07.bookkeeping.model.Borrower;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
-    Optional<Borrower> findByEmailAndUserUsername(String email, String username);
 
-    List<Borrower> findByUserUsername(String username);
+    // Read paths select straight into BorrowerDto instead of hydrating managed entities
+    String BORROWER_DTO_SELECT = "SELECT new com.rohithv07.bookkeeping.dto.BorrowerDto("
+            + "b.id, b.name, b.email, b.phone) FROM Borrower b ";
 
-    Optional<Borrower> findByIdAndUserUsername(Long id, String username);
+    // All queries filter on the indexed user_id foreign key (b.user.id) rather than joining users
+    @Query("SELECT b FROM Borrower b WHERE b.email = :email AND b.user.id = :userId")
+    Optional<Borrower> findByEmailAndUserId(@Param("email") String email, @Param("userId") Long userId);
 
-    List<Borrower> findByUserIsNull();
+    // Id load goes through the second-level cache (a JPQL query would not); the owner id is read off the
+    // cached row without initializing the user
+    default Optional<Borrower> findOwnedById(Long id, Long userId) {
+        return findById(id).filter(borrower -> borrower.getUser() != null
+                && userId.equals(borrower.getUser().getId()));
+    }
+
+    boolean existsByUserIsNull();
+
+    // Legacy rows saved before borrowers had an owner, handed over one chunk per call. Native because JPQL
+    // has no LIMIT in a subquery; that also clears the second-level cache, which is cold when this runs.
+    @Modifying
+    @Query(value = "UPDATE borrowers SET user_id = :ownerId, change_seq = :changeSeq, version = version + 1 "
+            + "WHERE id IN (SELECT id FROM borrowers WHERE user_id IS NULL ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int assignOrphansTo(@Param("ownerId") Long ownerId, @Param("changeSeq") Long changeSeq, @Param("limit") int limit);
+
+    // Resolves every borrower referenced by a loan batch in one query
+    @Query("SELECT b FROM Borrower b WHERE b.id IN :ids AND b.user.id = :userId")
+    List<Borrower> findAllByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query(BORROWER_DTO_SELECT + "WHERE b.user.id = :userId ORDER BY b.id ASC")
+    List<BorrowerDto> findDtosByUserId(@Param("userId") Long userId);
+
+    // Export: read from an open cursor like LoanRepository.streamDtosByUserId; callers must close the
+    // stream inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(BORROWER_DTO_SELECT + "WHERE b.user.id = :userId ORDER BY b.id ASC")
+    Stream<BorrowerDto> streamDtosByUserId(@Param("userId") Long userId);
+
+    @Query(BORROWER_DTO_SELECT + "WHERE b.id = :id AND b.user.id = :userId")
+    Optional<BorrowerDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Delta sync over idx_borrowers_user_change_seq: only rows written after the client's seq are read
+    @Query(BORROWER_DTO_SELECT + "WHERE b.user.id = :userId AND b.changeSeq > :since ORDER BY b.changeSeq ASC, b.id ASC")
+    List<BorrowerDto> findDtosByUserIdChangedAfter(@Param("userId") Long userId, @Param("since") Long since);
+
+    // Keyset pagination: first page, ordered by id
+    @Query(BORROWER_DTO_SELECT + "WHERE b.user.id = :userId ORDER BY b.id ASC")
+    List<BorrowerDto> findPageByUserId(@Param("userId") Long userId, Pageable limit);
+
+    // Keyset pagination: seek past the last id of the previous page
+    @Query(BORROWER_DTO_SELECT + "WHERE b.user.id = :userId AND b.id > :id ORDER BY b.id ASC")
+    List<BorrowerDto> findPageByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id,
+            Pageable limit);
 }
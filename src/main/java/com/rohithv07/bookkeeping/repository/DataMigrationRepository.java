@@ -0,0 +1,19 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.model.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+    // Returns 0 instead of failing when another instance booting at the same time recorded it first
+    @Modifying
+    @Query("INSERT INTO DataMigration (name, completedAt) VALUES (:name, :completedAt) ON CONFLICT DO NOTHING")
+    int markCompleted(@Param("name") String name, @Param("completedAt") LocalDateTime completedAt);
+}
@@ -0,0 +1,21 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.model.JobWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+
+    // SELECT ... FOR UPDATE: instances running the same job take turns chunk by chunk instead of
+    // processing the same rows twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.name = :name")
+    Optional<JobWatermark> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,31 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.dto.TombstoneDto;
+import com.rohithv07.bookkeeping.model.LedgerTombstone;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerTombstoneRepository extends JpaRepository<LedgerTombstone, Long> {
+
+    // Range scan over idx_ledger_tombstones_user_seq, so the cost follows the number of deletions since the client's seq
+    @Query("SELECT new com.rohithv07.bookkeeping.dto.TombstoneDto(t.entityType, t.entityId, t.reason, t.changeSeq) "
+            + "FROM LedgerTombstone t WHERE t.userId = :userId AND t.changeSeq > :since "
+            + "ORDER BY t.changeSeq ASC, t.id ASC")
+    List<TombstoneDto> findDtosByUserIdAfter(@Param("userId") Long userId, @Param("since") Long since);
+
+    // Export: the whole range of the same index from an open cursor; callers must close the stream inside
+    // a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.rohithv07.bookkeeping.dto.TombstoneDto(t.entityType, t.entityId, t.reason, t.changeSeq) "
+            + "FROM LedgerTombstone t WHERE t.userId = :userId ORDER BY t.changeSeq ASC, t.id ASC")
+    Stream<TombstoneDto> streamDtosByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,49 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.model.LedgerVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerVersionRepository extends JpaRepository<LedgerVersion, Long> {
+
+    @Query("SELECT v.version FROM LedgerVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    // Applied in the database so concurrent writers never lose a bump
+    @Modifying
+    @Query("UPDATE LedgerVersion v SET v.version = v.version + 1 WHERE v.userId = :userId")
+    int increment(@Param("userId") Long userId);
+
+    // Set-based bump for a job touching many ledgers at once; the rows are locked until commit like a single bump
+    @Modifying
+    @Query("UPDATE LedgerVersion v SET v.version = v.version + 1 WHERE v.userId IN :userIds")
+    int incrementAll(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT v FROM LedgerVersion v WHERE v.userId IN :userIds")
+    List<LedgerVersion> findAllByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Plain INSERT: save() on an assigned id would merge, costing an extra SELECT. HQL rather than native SQL
+    // so Hibernate knows only ledger_versions changed and leaves the second-level cache alone. A concurrent
+    // insert of the same row makes this wait for that transaction and then do nothing, so first writes
+    // racing for one user never fail on the primary key.
+    @Modifying
+    @Query("INSERT INTO LedgerVersion (userId, version) VALUES (:userId, 0) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    // Gives users created before ledger versions existed their row. Native, so it clears the second-level
+    // cache, which is empty when this runs at startup. Rows another booting instance or a signup inserted
+    // in the meantime are skipped rather than failing the whole statement.
+    @Modifying
+    @Query(value = "INSERT INTO ledger_versions (user_id, version) SELECT u.id, 0 FROM users u "
+            + "WHERE NOT EXISTS (SELECT 1 FROM ledger_versions v WHERE v.user_id = u.id) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillMissing();
+}
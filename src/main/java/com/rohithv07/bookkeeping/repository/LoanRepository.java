@@ -1,21 +1,144 @@
 package com.rohithv07.bookkeeping.repository;
 
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryGroup;
+import com.rohithv07.bookkeeping.dto.OverdueLoanCandidate;
 import com.rohithv07.bookkeeping.model.Loan;
 import com.rohithv07.bookkeeping.model.LoanStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
-    List<Loan> findByStatusAndUserUsername(LoanStatus status, String username);
 
-    List<Loan> findByUserUsername(String username);
+    // Read paths select straight into LoanDto with a single borrower join: no managed entities, no N+1
+    String LOAN_DTO_SELECT = "SELECT new com.rohithv07.bookkeeping.dto.LoanDto("
+            + "l.id, b.id, b.name, l.amount, l.currency, l.dateLent, l.dueDate, l.status) "
+            + "FROM Loan l JOIN l.borrower b ";
 
-    Optional<Loan> findByIdAndUserUsername(Long id, String username);
+    // All queries filter on the indexed user_id foreign key (l.user.id) rather than joining users
+    @Query("SELECT l FROM Loan l WHERE l.id = :id AND l.user.id = :userId")
+    Optional<Loan> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
-    List<Loan> findByUserIsNull();
+    boolean existsByUserIsNull();
+
+    // Legacy rows saved before loans had an owner, handed over one chunk per call (see BorrowerRepository)
+    @Modifying
+    @Query(value = "UPDATE loans SET user_id = :ownerId, change_seq = :changeSeq, version = version + 1 "
+            + "WHERE id IN (SELECT id FROM loans WHERE user_id IS NULL ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int assignOrphansTo(@Param("ownerId") Long ownerId, @Param("changeSeq") Long changeSeq, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(l) > 0 FROM Loan l WHERE l.id = :id AND l.user.id = :userId")
+    boolean existsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Repayment is applied by the database in one conditional statement, so concurrent repayments
+    // serialize on the row lock instead of overwriting each other's read-modify-write
+    @Modifying
+    @Query("UPDATE Loan l SET l.amount = l.amount - :amount, l.version = l.version + 1, l.changeSeq = :changeSeq "
+            + "WHERE l.id = :id AND l.user.id = :userId AND l.amount > :amount")
+    int deductRepayment(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") BigDecimal amount,
+            @Param("changeSeq") Long changeSeq);
+
+    // Follow-up when the repayment covers the remaining balance
+    @Modifying
+    @Query("DELETE FROM Loan l WHERE l.id = :id AND l.user.id = :userId AND l.amount <= :amount")
+    int deleteIfRepaidInFull(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId ORDER BY l.id ASC")
+    List<LoanDto> findDtosByUserId(@Param("userId") Long userId);
+
+    // Export: rows are pulled from an open cursor in fetch-size chunks; callers must close the stream
+    // inside a transaction (PostgreSQL only honours the fetch size with autocommit off)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId ORDER BY l.id ASC")
+    Stream<LoanDto> streamDtosByUserId(@Param("userId") Long userId);
+
+    // Full sync pages: seeks idx_loans_user_id_id past the last id handed out
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND l.id > :id ORDER BY l.id ASC")
+    List<LoanDto> findPageByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id, Pageable limit);
+
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND l.status = :status ORDER BY l.dueDate ASC, l.id ASC")
+    List<LoanDto> findDtosByStatusAndUserId(@Param("status") LoanStatus status, @Param("userId") Long userId);
+
+    @Query(LOAN_DTO_SELECT + "WHERE l.id = :id AND l.user.id = :userId")
+    Optional<LoanDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Portfolio totals in one aggregate query over idx_loans_user_status_currency. Active loans past their
+    // due date count as overdue too, as the detection job may not have flagged them yet.
+    @Query("SELECT new com.rohithv07.bookkeeping.dto.LoanSummaryGroup(l.currency, l.status, COUNT(l), SUM(l.amount), "
+            + "SUM(CASE WHEN l.status = :overdueStatus OR (l.status = :activeStatus AND l.dueDate < :today) "
+            + "THEN 1 ELSE 0 END)) "
+            + "FROM Loan l WHERE l.user.id = :userId "
+            + "GROUP BY l.currency, l.status ORDER BY l.currency ASC, l.status ASC")
+    List<LoanSummaryGroup> summarizeByUserId(@Param("userId") Long userId,
+            @Param("activeStatus") LoanStatus activeStatus, @Param("overdueStatus") LoanStatus overdueStatus,
+            @Param("today") LocalDate today);
+
+    // Overdue detection, across all users: seeks idx_loans_status_due_id to the job's watermark date and
+    // reads keys only, one chunk at a time. Flagged rows leave the ACTIVE range, so the next chunk starts
+    // at the first row still to do without a keyset position.
+    @Query("SELECT new com.rohithv07.bookkeeping.dto.OverdueLoanCandidate(l.id, l.user.id, l.dueDate) "
+            + "FROM Loan l WHERE l.status = :status AND l.dueDate >= :from AND l.dueDate < :today "
+            + "ORDER BY l.dueDate ASC, l.id ASC")
+    List<OverdueLoanCandidate> findOverdueCandidates(@Param("status") LoanStatus status,
+            @Param("from") LocalDate from, @Param("today") LocalDate today, Pageable limit);
+
+    // One statement per chunk. Each row takes its owner's ledger version, bumped just before in the same
+    // transaction, as its change sequence. HQL rather than native SQL, so the second-level cache is kept.
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = :overdueStatus, l.version = l.version + 1, "
+            + "l.changeSeq = COALESCE((SELECT v.version FROM LedgerVersion v WHERE v.userId = l.user.id), l.changeSeq) "
+            + "WHERE l.id IN :ids AND l.status = :activeStatus")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("activeStatus") LoanStatus activeStatus,
+            @Param("overdueStatus") LoanStatus overdueStatus);
+
+    // Delta sync over idx_loans_user_change_seq: only rows written after the client's seq are read
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND l.changeSeq > :since ORDER BY l.changeSeq ASC, l.id ASC")
+    List<LoanDto> findDtosByUserIdChangedAfter(@Param("userId") Long userId, @Param("since") Long since);
+
+    // Unpaid loans: ACTIVE or flagged OVERDUE. Literals rather than a parameter, so PostgreSQL can prove the
+    // predicate of the partial idx_loans_unpaid_user_due_id and walk it in (due date, id) order.
+    String UNPAID = "l.status IN (com.rohithv07.bookkeeping.model.LoanStatus.ACTIVE, "
+            + "com.rohithv07.bookkeeping.model.LoanStatus.OVERDUE) ";
+
+    // Keyset pagination over unpaid loans: first page, ordered by (dueDate, id)
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND " + UNPAID + "ORDER BY l.dueDate ASC, l.id ASC")
+    List<LoanDto> findUnpaidPageByUserId(@Param("userId") Long userId, Pageable limit);
+
+    // Keyset pagination over unpaid loans: seek past the last (dueDate, id) of the previous page
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND " + UNPAID
+            + "AND (l.dueDate > :dueDate OR (l.dueDate = :dueDate AND l.id > :id)) "
+            + "ORDER BY l.dueDate ASC, l.id ASC")
+    List<LoanDto> findUnpaidPageByUserIdAfter(@Param("userId") Long userId, @Param("dueDate") LocalDate dueDate,
+            @Param("id") Long id, Pageable limit);
+
+    // Keyset pagination: first page, ordered by (dueDate, id)
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND l.status = :status "
+            + "ORDER BY l.dueDate ASC, l.id ASC")
+    List<LoanDto> findPageByStatusAndUserId(@Param("status") LoanStatus status,
+            @Param("userId") Long userId, Pageable limit);
+
+    // Keyset pagination: seek past the last (dueDate, id) of the previous page
+    @Query(LOAN_DTO_SELECT + "WHERE l.user.id = :userId AND l.status = :status "
+            + "AND (l.dueDate > :dueDate OR (l.dueDate = :dueDate AND l.id > :id)) "
+            + "ORDER BY l.dueDate ASC, l.id ASC")
+    List<LoanDto> findPageByStatusAndUserIdAfter(@Param("status") LoanStatus status,
+            @Param("userId") Long userId, @Param("dueDate") LocalDate dueDate, @Param("id") Long id,
+            Pageable limit);
 }
@@ -0,0 +1,20 @@
+package com.rohithv07.bookkeeping.security;
+
+import java.security.Principal;
+
+/**
+ * Principal placed in the SecurityContext by {@link JwtAuthenticationFilter}. Carries the numeric
+ * user id so services can filter on the indexed user_id foreign key without a users join.
+ */
+public record AuthenticatedUser(Long id, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
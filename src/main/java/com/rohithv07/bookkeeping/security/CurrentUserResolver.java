@@ -0,0 +1,63 @@
+package com.rohithv07.bookkeeping.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Resolves the authenticated user's id once per request. Tokens issued by {@link JwtUtil} carry the
+ * id as a claim; for anything else (tokens minted before the claim existed, test principals) the id
+ * is looked up by username through a small bounded cache.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private final AppUserRepository userRepository;
+    private final Cache<String, Long> userIds;
+
+    public CurrentUserResolver(AppUserRepository userRepository,
+            @Value("${app.security.user-cache.max-size}") long maxSize,
+            @Value("${app.security.user-cache.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    public Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return user.id();
+        }
+        return resolveUserId(authentication.getName());
+    }
+
+    public Long resolveUserId(String username) {
+        Long userId = userIds.getIfPresent(username);
+        if (userId != null) {
+            return userId;
+        }
+        // Query outside the cache's compute: a JDBC call inside Cache.get would block while holding the
+        // map bin's monitor, pinning the carrier when running on virtual threads
+        userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        userIds.put(username, userId);
+        return userId;
+    }
+
+    public void evictAll() {
+        userIds.invalidateAll();
+    }
+}
@@ -5,8 +5,11 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -14,14 +17,22 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    // Signup is open, so the actuator role comes from deployment config rather than anything a user can set
+    private static final List<GrantedAuthority> OPS_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_OPS"));
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final Set<String> opsUsernames;
+
+    public JwtAuthenticationFilter(JwtTokenVerifier jwtTokenVerifier,
+            @Value("${app.security.ops-usernames}") Set<String> opsUsernames) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.opsUsernames = opsUsernames;
     }
 
     @Override
@@ -36,19 +47,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String username = null;
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                // Token is invalid/expired - let it pass through unauthenticated
-            }
-
-            if (username != null && jwtUtil.validateToken(jwt, username)) {
+            // Invalid/expired tokens yield no principal and pass through unauthenticated
+            jwtTokenVerifier.verify(jwt).ifPresent(user -> {
+                List<GrantedAuthority> authorities = opsUsernames.contains(user.username())
+                        ? OPS_AUTHORITIES
+                        : Collections.emptyList();
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.emptyList());
+                        user, null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            });
         }
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,125 @@
+package com.rohithv07.bookkeeping.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies bearer/cookie JWTs for {@link JwtAuthenticationFilter}. A token is parsed and its HMAC
+ * checked once; the resulting principal is then kept in a bounded cache keyed by the token's SHA-256
+ * digest until the token expires (capped at a maximum TTL), so polling clients skip re-verification.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final JwtUtil jwtUtil;
+    private final CurrentUserResolver currentUserResolver;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtTokenVerifier(JwtUtil jwtUtil, CurrentUserResolver currentUserResolver, MeterRegistry meterRegistry,
+            @Value("${app.security.jwt.cache.max-size}") long maxSize,
+            @Value("${app.security.jwt.cache.max-ttl}") Duration maxTtl) {
+        this.jwtUtil = jwtUtil;
+        this.currentUserResolver = currentUserResolver;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+        // Exposes cache.gets{result=hit|miss}, cache.size and cache.evictions
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+    }
+
+    public Optional<AuthenticatedUser> verify(String token) {
+        String cacheKey = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached.principal());
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseVerifiedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token is invalid/expired - let it pass through unauthenticated
+            return Optional.empty();
+        }
+
+        String username = claims.getSubject();
+        if (username == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+        Long userId = JwtUtil.userIdOf(claims);
+        if (userId == null) {
+            // Tokens issued before the user id claim existed fall back to the bounded id cache
+            try {
+                userId = currentUserResolver.resolveUserId(username);
+            } catch (ResourceNotFoundException e) {
+                return Optional.empty();
+            }
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(userId, username);
+        verifiedTokens.put(cacheKey, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        return Optional.of(principal);
+    }
+
+    Cache<String, VerifiedToken> cache() {
+        return verifiedTokens;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record VerifiedToken(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+
+    // Evicts an entry when its token expires, never later than maxTtl after it was verified
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long maxTtlNanos;
+
+        private UntilTokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExpiry = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.rohithv07.bookkeeping.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,52 +16,69 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    // Claim carrying the numeric user id, so requests never need to look the user up by name
+    public static final String USER_ID_CLAIM = "uid";
+
     private final SecretKey key;
     private final long jwtExpiration;
+    // Parsers are immutable and thread-safe, so build the verifying parser once instead of per call
+    private final JwtParser parser;
 
     public JwtUtil(
             @Value("${app.security.jwt.secret}") String secret,
             @Value("${app.security.jwt.expiration}") long jwtExpiration) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.jwtExpiration = jwtExpiration;
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(String username, Long userId) {
         return Jwts.builder()
                 .subject(username)
+                .claim(USER_ID_CLAIM, userId)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry with a single parse. Throws {@link JwtException} when the
+     * token is malformed, forged or expired.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public Long extractUserId(String token) {
+        return extractClaim(token, JwtUtil::userIdOf);
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseVerifiedClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Boolean validateToken(String token, String username) {
+        try {
+            // The parser already rejects expired tokens, so one parse covers both checks
+            return username.equals(parseVerifiedClaims(token).getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+    static Long userIdOf(Claims claims) {
+        return claims.get(USER_ID_CLAIM) instanceof Number id ? id.longValue() : null;
     }
 }
@@ -0,0 +1,87 @@
+package com.rohithv07.bookkeeping.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Throttles login attempts per submitted username and per client IP. Buckets live in size-bounded
+ * caches that drop a key once it has been idle for a full refill period; by then its bucket would be
+ * full again, so expiry never loosens a limit, and random usernames can no longer grow the heap.
+ */
+@Component
+public class LoginRateLimiter {
+
+    static final String BUCKETS_METRIC = "auth.login.rate-limit.buckets";
+    static final String REJECTIONS_METRIC = "auth.login.rate-limit.rejections";
+
+    private final Cache<String, Bucket> usernameBuckets;
+    private final Cache<String, Bucket> ipBuckets;
+    private final Bandwidth usernameLimit;
+    private final Bandwidth ipLimit;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+            @Value("${app.security.login-rate-limit.max-tracked-keys}") long maxTrackedKeys,
+            @Value("${app.security.login-rate-limit.username.capacity}") long usernameCapacity,
+            @Value("${app.security.login-rate-limit.username.period}") Duration usernamePeriod,
+            @Value("${app.security.login-rate-limit.ip.capacity}") long ipCapacity,
+            @Value("${app.security.login-rate-limit.ip.period}") Duration ipPeriod) {
+        this.usernameLimit = Bandwidth.builder().capacity(usernameCapacity)
+                .refillGreedy(usernameCapacity, usernamePeriod).build();
+        this.ipLimit = Bandwidth.builder().capacity(ipCapacity).refillGreedy(ipCapacity, ipPeriod).build();
+        this.usernameBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(usernamePeriod)
+                .build();
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(ipPeriod)
+                .build();
+
+        Gauge.builder(BUCKETS_METRIC, usernameBuckets, Cache::estimatedSize).tag("scope", "username")
+                .description("Usernames with a tracked login bucket").register(meterRegistry);
+        Gauge.builder(BUCKETS_METRIC, ipBuckets, Cache::estimatedSize).tag("scope", "ip")
+                .description("Client IPs with a tracked login bucket").register(meterRegistry);
+        this.usernameRejections = Counter.builder(REJECTIONS_METRIC).tag("scope", "username")
+                .description("Login attempts rejected by the per-username limit").register(meterRegistry);
+        this.ipRejections = Counter.builder(REJECTIONS_METRIC).tag("scope", "ip")
+                .description("Login attempts rejected by the per-IP limit").register(meterRegistry);
+    }
+
+    /**
+     * Consumes one attempt from the client IP's bucket and then from the username's bucket.
+     * Returns false when either limit is exhausted.
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        // Check the IP first so a stuffing run from one source does not create a bucket per username
+        if (!ipBuckets.get(clientIp, key -> Bucket.builder().addLimit(ipLimit).build()).tryConsume(1)) {
+            ipRejections.increment();
+            return false;
+        }
+        if (!usernameBuckets.get(username, key -> Bucket.builder().addLimit(usernameLimit).build()).tryConsume(1)) {
+            usernameRejections.increment();
+            return false;
+        }
+        return true;
+    }
+
+    long trackedUsernames() {
+        usernameBuckets.cleanUp();
+        return usernameBuckets.estimatedSize();
+    }
+
+    long trackedIps() {
+        ipBuckets.cleanUp();
+        return ipBuckets.estimatedSize();
+    }
+}
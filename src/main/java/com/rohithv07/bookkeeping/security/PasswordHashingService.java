@@ -0,0 +1,72 @@
+package com.rohithv07.bookkeeping.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated pool sized to the CPU count, so a login burst
+ * saturates this pool rather than the servlet workers serving ledger reads. The queue is bounded;
+ * once it is full, submissions fail fast with {@link RejectedExecutionException} (mapped to 503).
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    static final String EXECUTOR_NAME = "password.hashing";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        Counter rejections = Counter.builder(EXECUTOR_NAME + ".rejected")
+                .description("Password hashing tasks refused because the queue was full")
+                .register(meterRegistry);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue,
+                new CustomizableThreadFactory("password-hash-"), (task, rejectingPool) -> {
+                    rejections.increment();
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                });
+        // Exposes executor.active, executor.queued, executor.pool.size and task timings tagged name=password.hashing
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, EXECUTOR_NAME);
+    }
+
+    /**
+     * @throws RejectedExecutionException immediately when the hashing queue is full
+     */
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(rawPassword, encodedPassword), executor);
+    }
+
+    /**
+     * @throws RejectedExecutionException immediately when the hashing queue is full
+     */
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
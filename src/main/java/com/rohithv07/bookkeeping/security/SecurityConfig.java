@@ -1,5 +1,9 @@
 package com.rohithv07.bookkeeping.security;
 
+import com.rohithv07.bookkeeping.dto.CursorPage;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -40,8 +44,14 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async (streaming export) and error dispatches re-enter the chain after the request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**", "/api/csrf").permitAll()
                         .requestMatchers("/api/**").authenticated()
+                        // Platform probes stay anonymous; metrics reveal traffic, cache and login patterns, and anyone
+                        // can sign up, so the rest is for the usernames listed in app.security.ops-usernames
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("OPS")
                         .anyRequest().permitAll() // Allow static resources or unknown paths by default
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -63,6 +73,8 @@ public class SecurityConfig {
                         "https://*.run.app"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Let the cross-origin frontend read the pagination continuation token
+        configuration.setExposedHeaders(List.of(CursorPage.NEXT_CURSOR_HEADER));
         // Allow Credentials is required for HttpOnly Cookies
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,10 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+
+public interface AccountService {
+    /**
+     * Saves a new user with an already encoded password and starts its ledger version, in one transaction.
+     */
+    AppUser register(String username, String encodedPassword);
+}
@@ -0,0 +1,31 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class AccountServiceImpl implements AccountService {
+
+    // Explicit constructor injection without Lombok magic
+    private final AppUserRepository userRepository;
+    private final LedgerVersionService ledgerVersionService;
+
+    public AccountServiceImpl(AppUserRepository userRepository, LedgerVersionService ledgerVersionService) {
+        this.userRepository = userRepository;
+        this.ledgerVersionService = ledgerVersionService;
+    }
+
+    // A user is never left without its ledger version row: both commit or neither does
+    @Override
+    @Transactional
+    public AppUser register(String username, String encodedPassword) {
+        AppUser user = userRepository.save(AppUser.builder()
+                .username(username)
+                .password(encodedPassword)
+                .build());
+        ledgerVersionService.initialize(user.getId());
+        return user;
+    }
+}
@@ -1,12 +1,18 @@
 package com.rohithv07.bookkeeping.service;
 
+import com.rohithv07.bookkeeping.dto.BatchResponse;
 import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.CursorPage;
 import java.util.List;
 
 public interface BorrowerService {
     BorrowerDto addBorrower(BorrowerDto borrowerDto);
 
+    BatchResponse<BorrowerDto> addBorrowers(List<BorrowerDto> borrowerDtos);
+
     List<BorrowerDto> getAllBorrowers();
 
+    CursorPage<BorrowerDto> getAllBorrowers(String cursor, int size);
+
     BorrowerDto getBorrowerById(Long id);
 }
@@ -1,81 +1,163 @@
 package com.rohithv07.bookkeeping.service;
 
+import com.rohithv07.bookkeeping.dto.BatchItemResult;
+import com.rohithv07.bookkeeping.dto.BatchResponse;
 import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.CursorPage;
+import com.rohithv07.bookkeeping.dto.LedgerChange;
 import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.model.Borrower;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("bookkeeping.service")
 @Slf4j
 public class BorrowerServiceImpl implements BorrowerService {
 
     // Explicit constructor injection without Lombok magic
     private final BorrowerRepository borrowerRepository;
     private final AppUserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final LedgerVersionService ledgerVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BorrowerServiceImpl(BorrowerRepository borrowerRepository, AppUserRepository userRepository) {
+    public BorrowerServiceImpl(BorrowerRepository borrowerRepository, AppUserRepository userRepository,
+            CurrentUserResolver currentUserResolver, LedgerVersionService ledgerVersionService,
+            ApplicationEventPublisher eventPublisher) {
         this.borrowerRepository = borrowerRepository;
         this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.ledgerVersionService = ledgerVersionService;
+        this.eventPublisher = eventPublisher;
     }
 
-    private String getCurrentUsername() {
-        return org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication()
-                .getName();
-    }
-
+    // Bumps the ledger version first so the new version can be stamped on the rows (see LoanServiceImpl)
     @Override
+    @Transactional
     public BorrowerDto addBorrower(BorrowerDto borrowerDto) {
         log.info("Adding new borrower: {}", borrowerDto.getEmail());
 
-        String username = getCurrentUsername();
-        AppUser user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        Long userId = currentUserResolver.currentUserId();
+        long changeSeq = ledgerVersionService.bump(userId);
 
-        Borrower borrower = Borrower.builder()
-                .name(borrowerDto.getName())
-                .email(borrowerDto.getEmail())
-                .phone(borrowerDto.getPhone())
-                .user(user)
-                .build();
+        // The id is already known, so reference the owner without selecting the users row
+        Borrower borrower = buildBorrower(borrowerDto, userRepository.getReferenceById(userId), changeSeq);
 
         Borrower savedBorrower = borrowerRepository.save(borrower);
         log.debug("Saved borrower with ID: {}", savedBorrower.getId());
 
-        return mapToDto(savedBorrower);
+        BorrowerDto created = mapToDto(savedBorrower);
+        eventPublisher.publishEvent(new LedgerChangedEvent(userId, LedgerChange.builder()
+                .type(LedgerChange.Type.BORROWER_CREATED)
+                .seq(changeSeq)
+                .borrower(created)
+                .build()));
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public BatchResponse<BorrowerDto> addBorrowers(List<BorrowerDto> borrowerDtos) {
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Adding batch of {} borrowers by user ID: {}", borrowerDtos.size(), userId);
+
+        long changeSeq = ledgerVersionService.bump(userId);
+        AppUser owner = userRepository.getReferenceById(userId);
+        List<Borrower> toSave = new ArrayList<>(borrowerDtos.size());
+        for (BorrowerDto borrowerDto : borrowerDtos) {
+            toSave.add(buildBorrower(borrowerDto, owner, changeSeq));
+        }
+
+        // Sequence ids are assigned on persist, and the inserts are flushed in JDBC batches at commit
+        List<Borrower> savedBorrowers = borrowerRepository.saveAll(toSave);
+        List<BatchItemResult<BorrowerDto>> results = new ArrayList<>(savedBorrowers.size());
+        for (int i = 0; i < savedBorrowers.size(); i++) {
+            results.add(BatchItemResult.<BorrowerDto>builder()
+                    .index(i)
+                    .status(BatchItemResult.Status.CREATED)
+                    .item(mapToDto(savedBorrowers.get(i)))
+                    .build());
+        }
+        log.debug("Saved {} borrowers in batch", savedBorrowers.size());
+        eventPublisher.publishEvent(new LedgerChangedEvent(userId, LedgerChange.builder()
+                .type(LedgerChange.Type.BORROWERS_CREATED)
+                .seq(changeSeq)
+                .count(savedBorrowers.size())
+                .build()));
+
+        return BatchResponse.<BorrowerDto>builder()
+                .created(savedBorrowers.size())
+                .failed(0)
+                .results(results)
+                .build();
     }
 
     @Override
     public List<BorrowerDto> getAllBorrowers() {
-        log.info("Fetching all borrowers for user: {}", getCurrentUsername());
-        List<Borrower> borrowers = borrowerRepository.findByUserUsername(getCurrentUsername());
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Fetching all borrowers for user ID: {}", userId);
+        List<BorrowerDto> borrowers = borrowerRepository.findDtosByUserId(userId);
         log.debug("Found {} borrowers", borrowers.size());
+        return borrowers;
+    }
 
-        return borrowers.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    @Override
+    public CursorPage<BorrowerDto> getAllBorrowers(String cursor, int size) {
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Fetching borrowers page of {} for user ID: {}", size, userId);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<BorrowerDto> borrowers = (cursor == null || cursor.isBlank())
+                ? borrowerRepository.findPageByUserId(userId, limit)
+                : borrowerRepository.findPageByUserIdAfter(userId, PageCursors.decodeBorrower(cursor), limit);
+
+        boolean hasMore = borrowers.size() > size;
+        List<BorrowerDto> pageBorrowers = hasMore ? borrowers.subList(0, size) : borrowers;
+        log.debug("Found {} borrowers in page, more available: {}", pageBorrowers.size(), hasMore);
+
+        return CursorPage.<BorrowerDto>builder()
+                .items(pageBorrowers)
+                .nextCursor(hasMore
+                        ? PageCursors.encodeBorrower(pageBorrowers.get(pageBorrowers.size() - 1).getId())
+                        : null)
+                .build();
     }
 
     @Override
     public BorrowerDto getBorrowerById(Long id) {
-        String username = getCurrentUsername();
-        log.info("Fetching borrower with ID: {} for user: {}", id, username);
-        Borrower borrower = borrowerRepository.findByIdAndUserUsername(id, username)
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Fetching borrower with ID: {} for user ID: {}", id, userId);
+        return borrowerRepository.findDtoByIdAndUserId(id, userId)
                 .orElseThrow(() -> {
-                    log.error("Borrower not found with ID {} for user {}", id, username);
+                    log.error("Borrower not found with ID {} for user ID {}", id, userId);
                     return new ResourceNotFoundException("Borrower not found with ID: " + id);
                 });
+    }
 
-        return mapToDto(borrower);
+    private Borrower buildBorrower(BorrowerDto borrowerDto, AppUser owner, long changeSeq) {
+        return Borrower.builder()
+                .name(borrowerDto.getName())
+                .email(borrowerDto.getEmail())
+                .phone(borrowerDto.getPhone())
+                .user(owner)
+                .changeSeq(changeSeq)
+                .build();
     }
 
-    // Helper method to map Entity to DTO
+    // Helper method to map a freshly written Entity to DTO; read paths use projections instead
     private BorrowerDto mapToDto(Borrower borrower) {
         return BorrowerDto.builder()
                 .id(borrower.getId())
@@ -0,0 +1,10 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.dto.LedgerChange;
+
+/**
+ * Published by the loan and borrower services for every ledger write. Listeners that push it to
+ * clients must only see it once the write is committed.
+ */
+public record LedgerChangedEvent(Long userId, LedgerChange change) {
+}
@@ -0,0 +1,202 @@
+package com.rohithv07.bookkeeping.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed {@link LedgerChangedEvent}s out to each user's open {@code GET /api/loans/events}
+ * streams. An idle stream is just a suspended async request, so it holds no thread. Each connection
+ * has its own mailbox. When there is something to send, a virtual thread drains the mailbox in
+ * order, so a slow client never delays the committing request or other users. A connection that
+ * falls too far behind is closed; the browser reconnects and refetches.
+ */
+@Service
+@Slf4j
+public class LedgerEventBroadcaster implements DisposableBean {
+
+    static final String CONNECTIONS_METRIC = "ledger.events.connections";
+    static final String DROPPED_METRIC = "ledger.events.dropped";
+
+    // Sent with the greeting so EventSource waits this long before reconnecting
+    private static final long RECONNECT_DELAY_MILLIS = 3000;
+
+    private final Map<Long, Queue<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter dropped;
+    private final long emitterTimeoutMillis;
+    private final int maxConnectionsPerUser;
+    private final int maxPendingPerConnection;
+
+    public LedgerEventBroadcaster(MeterRegistry meterRegistry,
+            @Value("${app.events.emitter-timeout}") Duration emitterTimeout,
+            @Value("${app.events.max-connections-per-user}") int maxConnectionsPerUser,
+            @Value("${app.events.max-pending-per-connection}") int maxPendingPerConnection) {
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxPendingPerConnection = maxPendingPerConnection;
+        Gauge.builder(CONNECTIONS_METRIC, connections, AtomicInteger::get)
+                .description("Open ledger event streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(DROPPED_METRIC)
+                .description("Ledger event streams closed because the client fell behind")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(emitterTimeoutMillis));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onError(error -> subscriber.close());
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+
+        // Every tab keeps its own stream; past the cap the oldest one is closed rather than refusing the newest
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Queue<Subscriber> queue = userSubscribers != null ? userSubscribers : new ConcurrentLinkedQueue<>();
+            queue.add(subscriber);
+            while (queue.size() > maxConnectionsPerUser) {
+                evicted.add(queue.poll());
+            }
+            return queue;
+        });
+        connections.incrementAndGet();
+        // Completing triggers the removal callback, so do it outside compute
+        evicted.forEach(old -> old.emitter.complete());
+        log.debug("Opened ledger event stream for user ID {}, evicted {}", userId, evicted.size());
+
+        // Greet right away so the response headers are flushed before the first change
+        subscriber.enqueue(SseEmitter.event().reconnectTime(RECONNECT_DELAY_MILLIS).comment("connected"));
+        return subscriber.emitter;
+    }
+
+    // Runs after commit for transactional writes, and immediately for writes made outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        Queue<Subscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null) {
+            return;
+        }
+        String name = event.change().getType().getEventName();
+        for (Subscriber subscriber : userSubscribers) {
+            // A builder accumulates its output, so each connection gets its own
+            subscriber.enqueue(SseEmitter.event().name(name).data(event.change(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Keeps idle streams from being cut by proxies and surfaces dead connections on the next write
+    @Scheduled(fixedRateString = "${app.events.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers
+                .forEach(subscriber -> subscriber.enqueue(SseEmitter.event().comment("keep-alive"))));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers
+                .forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        connections.decrementAndGet();
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPendingPerConnection) {
+                log.warn("Closing ledger event stream for user ID {}: client is not keeping up", userId);
+                dropped.increment();
+                emitter.complete();
+                return;
+            }
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the stream is being completed anyway
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already completed
+                log.debug("Dropping ledger event stream for user ID {}: {}", userId, e.getMessage());
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before draining was released
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                pending.clear();
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface LedgerExportService {
+    /**
+     * Writes the user's borrowers, loans and tombstones, in that order, and returns how many records were
+     * written. Every record names its type: a leading {@code type} column in CSV, where each type is its own
+     * section with its own header, and a {@code type} field in NDJSON.
+     */
+    long exportLedger(Long userId, ExportFormat format, OutputStream out) throws IOException;
+}
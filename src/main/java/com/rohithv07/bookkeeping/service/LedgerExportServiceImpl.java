@@ -0,0 +1,167 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.ExportFormat;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.TombstoneDto;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LedgerTombstoneRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Timed("bookkeeping.service")
+@Slf4j
+public class LedgerExportServiceImpl implements LedgerExportService {
+
+    // Push rows to the client regularly instead of holding them in the writer buffer until the end
+    static final int FLUSH_EVERY_ROWS = 500;
+
+    static final String BORROWER_CSV_HEADER = "type,id,name,email,phone";
+    static final String LOAN_CSV_HEADER = "type,id,borrowerId,borrowerName,amount,currency,dateLent,dueDate,status";
+    static final String TOMBSTONE_CSV_HEADER = "type,entityType,id,reason,changeSeq";
+
+    // Explicit constructor injection without Lombok magic
+    private final BorrowerRepository borrowerRepository;
+    private final LoanRepository loanRepository;
+    private final LedgerTombstoneRepository tombstoneRepository;
+    private final ObjectMapper objectMapper;
+
+    public LedgerExportServiceImpl(BorrowerRepository borrowerRepository, LoanRepository loanRepository,
+            LedgerTombstoneRepository tombstoneRepository, ObjectMapper objectMapper) {
+        this.borrowerRepository = borrowerRepository;
+        this.loanRepository = loanRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportLedger(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting ledger as {} for user ID: {}", format, userId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // Borrowers come first, so a reader knows every borrower before the loans that refer to it. Each
+        // cursor is closed before the next one opens.
+        long rows = 0;
+        try (Stream<BorrowerDto> borrowers = borrowerRepository.streamDtosByUserId(userId)) {
+            rows = writeSection(writer, format, true, "borrower", BORROWER_CSV_HEADER, borrowers,
+                    this::writeBorrowerCsv, rows);
+        }
+        try (Stream<LoanDto> loans = loanRepository.streamDtosByUserId(userId)) {
+            rows = writeSection(writer, format, false, "loan", LOAN_CSV_HEADER, loans, this::writeLoanCsv, rows);
+        }
+        // Loans and borrowers that were deleted or repaid in full, which no longer have a row above
+        try (Stream<TombstoneDto> tombstones = tombstoneRepository.streamDtosByUserId(userId)) {
+            rows = writeSection(writer, format, false, "tombstone", TOMBSTONE_CSV_HEADER, tombstones,
+                    this::writeTombstoneCsv, rows);
+        }
+        writer.flush();
+
+        log.debug("Exported {} ledger records for user ID: {}", rows, userId);
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface CsvRowWriter<T> {
+        void write(Writer writer, T row) throws IOException;
+    }
+
+    // Rows are written as they are fetched from the open cursor, so memory use does not depend on the size
+    // of the ledger. Returns the running record count, which drives the periodic flush across sections.
+    private <T> long writeSection(Writer writer, ExportFormat format, boolean firstSection, String type,
+            String csvHeader, Stream<T> records, CsvRowWriter<T> csvRow, long rows) throws IOException {
+        if (format == ExportFormat.CSV) {
+            // A blank line ends the previous section
+            if (!firstSection) {
+                writer.write('\n');
+            }
+            writer.write(csvHeader);
+            writer.write('\n');
+        }
+
+        Iterator<T> iterator = records.iterator();
+        while (iterator.hasNext()) {
+            T record = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writer.write(type);
+                writer.write(',');
+                csvRow.write(writer, record);
+                writer.write('\n');
+            } else {
+                ObjectNode line = objectMapper.createObjectNode().put("type", type);
+                line.setAll((ObjectNode) objectMapper.valueToTree(record));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        return rows;
+    }
+
+    private void writeBorrowerCsv(Writer writer, BorrowerDto borrower) throws IOException {
+        writer.write(csvField(borrower.getId()));
+        writer.write(',');
+        writer.write(csvField(borrower.getName()));
+        writer.write(',');
+        writer.write(csvField(borrower.getEmail()));
+        writer.write(',');
+        writer.write(csvField(borrower.getPhone()));
+    }
+
+    private void writeLoanCsv(Writer writer, LoanDto loan) throws IOException {
+        writer.write(csvField(loan.getId()));
+        writer.write(',');
+        writer.write(csvField(loan.getBorrowerId()));
+        writer.write(',');
+        writer.write(csvField(loan.getBorrowerName()));
+        writer.write(',');
+        writer.write(csvField(loan.getAmount() != null ? loan.getAmount().toPlainString() : null));
+        writer.write(',');
+        writer.write(csvField(loan.getCurrency()));
+        writer.write(',');
+        writer.write(csvField(loan.getDateLent()));
+        writer.write(',');
+        writer.write(csvField(loan.getDueDate()));
+        writer.write(',');
+        writer.write(csvField(loan.getStatus()));
+    }
+
+    private void writeTombstoneCsv(Writer writer, TombstoneDto tombstone) throws IOException {
+        writer.write(csvField(tombstone.getEntityType()));
+        writer.write(',');
+        writer.write(csvField(tombstone.getId()));
+        writer.write(',');
+        writer.write(csvField(tombstone.getReason()));
+        writer.write(',');
+        writer.write(csvField(tombstone.getChangeSeq()));
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,19 @@
+package com.rohithv07.bookkeeping.service;
+
+public interface LedgerVersionService {
+    void initialize(Long userId);
+
+    /**
+     * Increments the user's ledger version and returns the new value. Inside a transaction the row stays
+     * locked until commit, so the user's writes are numbered in commit order and the value can be used as
+     * the change sequence of the rows written alongside it.
+     */
+    long bump(Long userId);
+
+    long currentVersion(Long userId);
+
+    String currentETag(Long userId);
+
+    // ETag of one representation (see WireFormats.etagVariant); an empty variant is the JSON one
+    String currentETag(Long userId, String variant);
+}
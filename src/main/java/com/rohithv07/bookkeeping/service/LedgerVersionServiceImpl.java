@@ -0,0 +1,57 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.repository.LedgerVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Slf4j
+public class LedgerVersionServiceImpl implements LedgerVersionService {
+
+    // Explicit constructor injection without Lombok magic
+    private final LedgerVersionRepository ledgerVersionRepository;
+
+    public LedgerVersionServiceImpl(LedgerVersionRepository ledgerVersionRepository) {
+        this.ledgerVersionRepository = ledgerVersionRepository;
+    }
+
+    @Override
+    @Transactional
+    public void initialize(Long userId) {
+        ledgerVersionRepository.insertIfAbsent(userId);
+    }
+
+    // Joins the caller's transaction when there is one, so the bump commits together with the write
+    @Override
+    @Transactional
+    public long bump(Long userId) {
+        if (ledgerVersionRepository.increment(userId) == 0) {
+            // Rows are created at signup and backfilled at startup; this only covers users inserted otherwise.
+            // Two first writes can both get here, so create the row idempotently and increment it like any other.
+            log.debug("No ledger version for user ID {}, starting one", userId);
+            ledgerVersionRepository.insertIfAbsent(userId);
+            ledgerVersionRepository.increment(userId);
+        }
+        // Reads our own uncommitted increment; the row lock keeps other writers out until commit
+        return currentVersion(userId);
+    }
+
+    @Override
+    public long currentVersion(Long userId) {
+        return ledgerVersionRepository.findVersionByUserId(userId).orElse(0L);
+    }
+
+    // Strong validator: the user id keeps tags from different accounts sharing a browser cache apart
+    @Override
+    public String currentETag(Long userId) {
+        return currentETag(userId, "");
+    }
+
+    // Strong validators must differ between representations, so CBOR and columnar JSON get their own
+    @Override
+    public String currentETag(Long userId, String variant) {
+        String suffix = variant == null || variant.isEmpty() ? "" : "-" + variant;
+        return "\"" + userId + "-" + currentVersion(userId) + suffix + "\"";
+    }
+}
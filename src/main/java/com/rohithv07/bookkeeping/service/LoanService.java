@@ -1,18 +1,30 @@
 package com.rohithv07.bookkeeping.service;
 
+import com.rohithv07.bookkeeping.dto.BatchResponse;
+import com.rohithv07.bookkeeping.dto.CursorPage;
 import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryDto;
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface LoanService {
     LoanDto addLoan(LoanDto loanDto);
 
+    BatchResponse<LoanDto> addLoans(List<LoanDto> loanDtos);
+
     List<LoanDto> getAllLoans();
 
     List<LoanDto> getActiveLoans();
 
+    CursorPage<LoanDto> getActiveLoans(String cursor, int size);
+
+    CursorPage<LoanDto> getOverdueLoans(String cursor, int size);
+
+    LoanSummaryDto getSummary();
+
     LoanDto getLoanById(Long id);
 
     void deleteLoan(Long id);
 
-    void repayLoan(Long id, java.math.BigDecimal amount);
+    void repayLoan(Long id, BigDecimal amount);
 }
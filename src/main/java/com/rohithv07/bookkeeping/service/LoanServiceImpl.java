@@ -1,139 +1,401 @@
 package com.rohithv07.bookkeeping.service;
 
+import com.rohithv07.bookkeeping.dto.BatchItemResult;
+import com.rohithv07.bookkeeping.dto.BatchResponse;
+import com.rohithv07.bookkeeping.dto.CursorPage;
+import com.rohithv07.bookkeeping.dto.LedgerChange;
 import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryGroup;
 import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.LedgerTombstone;
 import com.rohithv07.bookkeeping.model.Loan;
 import com.rohithv07.bookkeeping.model.LoanStatus;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LedgerTombstoneRepository;
 import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("bookkeeping.service")
 public class LoanServiceImpl implements LoanService {
 
     private static final Logger log = LoggerFactory.getLogger(LoanServiceImpl.class);
 
+    // The balance only decreases, so one round normally settles; the bound guards against livelock
+    private static final int MAX_REPAYMENT_ATTEMPTS = 3;
+
+    static final String REPAYMENTS_METRIC = "loans.repayments";
+
     // Explicit constructor injection without Lombok magic
     private final LoanRepository loanRepository;
     private final BorrowerRepository borrowerRepository;
     private final AppUserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final LedgerVersionService ledgerVersionService;
+    private final LedgerTombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Registered once so a repayment only pays for an increment
+    private final Counter partialRepayments;
+    private final Counter fullRepayments;
+    private final Counter repaymentsNotFound;
+    private final Counter repaymentConflicts;
 
     public LoanServiceImpl(LoanRepository loanRepository, BorrowerRepository borrowerRepository,
-            AppUserRepository userRepository) {
+            AppUserRepository userRepository, CurrentUserResolver currentUserResolver,
+            LedgerVersionService ledgerVersionService, LedgerTombstoneRepository tombstoneRepository,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
         this.loanRepository = loanRepository;
         this.borrowerRepository = borrowerRepository;
         this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.ledgerVersionService = ledgerVersionService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.partialRepayments = repaymentCounter(meterRegistry, "partial");
+        this.fullRepayments = repaymentCounter(meterRegistry, "full");
+        this.repaymentsNotFound = repaymentCounter(meterRegistry, "not_found");
+        this.repaymentConflicts = repaymentCounter(meterRegistry, "conflict");
     }
 
-    private String getCurrentUsername() {
-        return org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication()
-                .getName();
+    private static Counter repaymentCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(REPAYMENTS_METRIC)
+                .description("Loan repayments by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
+    // Every write runs in one transaction that bumps the ledger version first: the version row lock then
+    // orders the user's writes, and the new version is stamped on the rows as their change sequence
     @Override
+    @Transactional
     public LoanDto addLoan(LoanDto loanDto) {
-        String username = getCurrentUsername();
-        log.info("Adding new loan for borrower ID: {} by user: {}", loanDto.getBorrowerId(), username);
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Adding new loan for borrower ID: {} by user ID: {}", loanDto.getBorrowerId(), userId);
 
-        AppUser user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
-
-        Borrower borrower = borrowerRepository.findByIdAndUserUsername(loanDto.getBorrowerId(), username)
+        Borrower borrower = borrowerRepository.findOwnedById(loanDto.getBorrowerId(), userId)
                 .orElseThrow(
                         () -> new ResourceNotFoundException(
                                 "Borrower not found natively or access denied for ID: " + loanDto.getBorrowerId()));
 
-        String finalCurrency = (loanDto.getCurrency() != null && !loanDto.getCurrency().trim().isEmpty())
-                ? loanDto.getCurrency().trim().toUpperCase()
-                : "USD";
-
-        Loan loan = Loan.builder()
-                .borrower(borrower)
-                .amount(loanDto.getAmount())
-                .currency(finalCurrency)
-                .dateLent(loanDto.getDateLent())
-                .status(LoanStatus.ACTIVE)
-                .user(user)
-                .build();
+        long changeSeq = ledgerVersionService.bump(userId);
+        // The id is already known, so reference the owner without selecting the users row
+        Loan loan = buildLoan(loanDto, borrower, userRepository.getReferenceById(userId), changeSeq);
 
         Loan savedLoan = loanRepository.save(loan);
         log.debug("Saved loan with ID: {}", savedLoan.getId());
 
-        return mapToDto(savedLoan);
+        LoanDto created = mapToDto(savedLoan);
+        publish(userId, LedgerChange.builder()
+                .type(LedgerChange.Type.LOAN_CREATED)
+                .seq(changeSeq)
+                .loanId(created.getId())
+                .loan(created)
+                .build());
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public BatchResponse<LoanDto> addLoans(List<LoanDto> loanDtos) {
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Adding batch of {} loans by user ID: {}", loanDtos.size(), userId);
+
+        // Resolve every referenced borrower in one query instead of one lookup per loan
+        Map<Long, Borrower> borrowers = borrowerRepository.findAllByIdInAndUserId(
+                loanDtos.stream().map(LoanDto::getBorrowerId).collect(Collectors.toSet()), userId)
+                .stream()
+                .collect(Collectors.toMap(Borrower::getId, Function.identity()));
+        AppUser owner = userRepository.getReferenceById(userId);
+
+        // Only take the version row lock (and change the ETag) when something will be written
+        long changeSeq = borrowers.isEmpty() ? 0L : ledgerVersionService.bump(userId);
+
+        List<BatchItemResult<LoanDto>> results = new ArrayList<>(Collections.nCopies(loanDtos.size(), null));
+        List<Loan> toSave = new ArrayList<>(loanDtos.size());
+        List<Integer> savedIndexes = new ArrayList<>(loanDtos.size());
+        for (int i = 0; i < loanDtos.size(); i++) {
+            LoanDto loanDto = loanDtos.get(i);
+            Borrower borrower = borrowers.get(loanDto.getBorrowerId());
+            if (borrower == null) {
+                results.set(i, BatchItemResult.<LoanDto>builder()
+                        .index(i)
+                        .status(BatchItemResult.Status.FAILED)
+                        .error("Borrower not found natively or access denied for ID: " + loanDto.getBorrowerId())
+                        .build());
+                continue;
+            }
+            toSave.add(buildLoan(loanDto, borrower, owner, changeSeq));
+            savedIndexes.add(i);
+        }
+
+        // Sequence ids are assigned on persist, and the inserts are flushed in JDBC batches at commit
+        List<Loan> savedLoans = loanRepository.saveAll(toSave);
+        for (int i = 0; i < savedLoans.size(); i++) {
+            int index = savedIndexes.get(i);
+            results.set(index, BatchItemResult.<LoanDto>builder()
+                    .index(index)
+                    .status(BatchItemResult.Status.CREATED)
+                    .item(mapToDto(savedLoans.get(i)))
+                    .build());
+        }
+        log.debug("Saved {} of {} loans in batch", savedLoans.size(), loanDtos.size());
+        if (!savedLoans.isEmpty()) {
+            publish(userId, LedgerChange.builder()
+                    .type(LedgerChange.Type.LOANS_CREATED)
+                    .seq(changeSeq)
+                    .count(savedLoans.size())
+                    .build());
+        }
+
+        return BatchResponse.<LoanDto>builder()
+                .created(savedLoans.size())
+                .failed(loanDtos.size() - savedLoans.size())
+                .results(results)
+                .build();
     }
 
     @Override
     public List<LoanDto> getAllLoans() {
-        log.info("Fetching all loans for user: {}", getCurrentUsername());
-        List<Loan> loans = loanRepository.findByUserUsername(getCurrentUsername());
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Fetching all loans for user ID: {}", userId);
+        List<LoanDto> loans = loanRepository.findDtosByUserId(userId);
         log.debug("Found {} loans in total", loans.size());
-
-        return loans.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return loans;
     }
 
     @Override
     public List<LoanDto> getActiveLoans() {
-        log.info("Fetching all active loans for user: {}", getCurrentUsername());
-        List<Loan> activeLoans = loanRepository.findByStatusAndUserUsername(LoanStatus.ACTIVE, getCurrentUsername());
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Fetching all active loans for user ID: {}", userId);
+        List<LoanDto> activeLoans = loanRepository.findDtosByStatusAndUserId(LoanStatus.ACTIVE, userId);
         log.debug("Found {} active loans", activeLoans.size());
+        return activeLoans;
+    }
 
-        return activeLoans.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    // Every unpaid loan, flagged overdue or not: the job flagging a loan must not drop it from the listing
+    // clients already use. GET /api/loans/overdue is the flagged subset.
+    @Override
+    public CursorPage<LoanDto> getActiveLoans(String cursor, int size) {
+        Long userId = currentUserResolver.currentUserId();
+        return getLoansPage("unpaid", userId, cursor, size,
+                limit -> loanRepository.findUnpaidPageByUserId(userId, limit),
+                (after, limit) -> loanRepository.findUnpaidPageByUserIdAfter(userId, after.dueDate(), after.id(),
+                        limit));
+    }
+
+    @Override
+    public CursorPage<LoanDto> getOverdueLoans(String cursor, int size) {
+        Long userId = currentUserResolver.currentUserId();
+        return getLoansPage("overdue", userId, cursor, size,
+                limit -> loanRepository.findPageByStatusAndUserId(LoanStatus.OVERDUE, userId, limit),
+                (after, limit) -> loanRepository.findPageByStatusAndUserIdAfter(LoanStatus.OVERDUE, userId,
+                        after.dueDate(), after.id(), limit));
+    }
+
+    // Both listings seek an index on (user, due date, id), so a page costs the same whatever the ledger size
+    private CursorPage<LoanDto> getLoansPage(String listing, Long userId, String cursor, int size,
+            Function<Pageable, List<LoanDto>> firstPage,
+            BiFunction<PageCursors.LoanPosition, Pageable, List<LoanDto>> nextPage) {
+        log.info("Fetching {} loans page of {} for user ID: {}", listing, size, userId);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<LoanDto> loans = cursor == null || cursor.isBlank()
+                ? firstPage.apply(limit)
+                : nextPage.apply(PageCursors.decodeLoan(cursor), limit);
+
+        boolean hasMore = loans.size() > size;
+        List<LoanDto> pageLoans = hasMore ? loans.subList(0, size) : loans;
+        LoanDto last = pageLoans.isEmpty() ? null : pageLoans.get(pageLoans.size() - 1);
+        log.debug("Found {} {} loans in page, more available: {}", pageLoans.size(), listing, hasMore);
+
+        return CursorPage.<LoanDto>builder()
+                .items(pageLoans)
+                .nextCursor(hasMore ? PageCursors.encodeLoan(last.getDueDate(), last.getId()) : null)
+                .build();
+    }
+
+    @Override
+    public LoanSummaryDto getSummary() {
+        Long userId = currentUserResolver.currentUserId();
+        log.info("Computing loan summary for user ID: {}", userId);
+        List<LoanSummaryGroup> groups = loanRepository.summarizeByUserId(userId, LoanStatus.ACTIVE,
+                LoanStatus.OVERDUE, LocalDate.now());
+
+        // At most (currencies x statuses) rows come back, so folding them here is trivial
+        long totalLoans = 0;
+        long activeLoans = 0;
+        long overdueLoans = 0;
+        Map<String, BigDecimal> outstandingByCurrency = new TreeMap<>();
+        for (LoanSummaryGroup group : groups) {
+            totalLoans += group.getLoanCount();
+            overdueLoans += group.getOverdueCount();
+            // Overdue loans are still outstanding
+            if (group.getStatus() == LoanStatus.ACTIVE || group.getStatus() == LoanStatus.OVERDUE) {
+                activeLoans += group.getLoanCount();
+                outstandingByCurrency.merge(group.getCurrency(), group.getTotalAmount(), BigDecimal::add);
+            }
+        }
+        log.debug("Summarized {} loans in {} groups", totalLoans, groups.size());
+
+        return LoanSummaryDto.builder()
+                .totalLoans(totalLoans)
+                .activeLoans(activeLoans)
+                .overdueLoans(overdueLoans)
+                .outstandingByCurrency(outstandingByCurrency)
+                .groups(groups)
+                .build();
     }
 
     @Override
     public LoanDto getLoanById(Long id) {
+        Long userId = currentUserResolver.currentUserId();
         log.info("Fetching loan with ID: {}", id);
-        Loan loan = getLoanEntityById(id);
-        return mapToDto(loan);
+        return loanRepository.findDtoByIdAndUserId(id, userId)
+                .orElseThrow(() -> {
+                    log.error("Loan not found with ID {} for user ID {}", id, userId);
+                    return new ResourceNotFoundException("Loan not found with ID: " + id);
+                });
     }
 
     @Override
+    @Transactional
     public void deleteLoan(Long id) {
         log.info("Deleting loan ID {}", id);
         Loan loan = getLoanEntityById(id);
+        Long userId = currentUserResolver.currentUserId();
+        long changeSeq = ledgerVersionService.bump(userId);
         loanRepository.delete(loan);
+        recordTombstone(userId, id, LedgerTombstone.Reason.DELETED, changeSeq);
         log.debug("Loan ID {} successfully deleted", id);
+        publish(userId, LedgerChange.builder()
+                .type(LedgerChange.Type.LOAN_DELETED)
+                .seq(changeSeq)
+                .loanId(id)
+                .build());
     }
 
     @Override
-    public void repayLoan(Long id, java.math.BigDecimal amount) {
+    @Transactional
+    public void repayLoan(Long id, BigDecimal amount) {
+        Long userId = currentUserResolver.currentUserId();
         log.info("Processing repayment of {} for loan ID {}", amount, id);
-        Loan loan = getLoanEntityById(id);
-        java.math.BigDecimal newAmount = loan.getAmount().subtract(amount);
-        if (newAmount.compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            log.debug("Loan {} fully repaid. Deleting record.", id);
-            loanRepository.delete(loan);
-        } else {
-            log.debug("Loan {} partially repaid. Remaining balance: {}", id, newAmount);
-            loan.setAmount(newAmount);
-            loanRepository.save(loan);
+        // Rolled back with the rest of the transaction when the loan turns out to be missing
+        long changeSeq = ledgerVersionService.bump(userId);
+        for (int attempt = 1; attempt <= MAX_REPAYMENT_ATTEMPTS; attempt++) {
+            if (loanRepository.deductRepayment(id, userId, amount, changeSeq) == 1) {
+                log.debug("Loan {} partially repaid by {}", id, amount);
+                publish(userId, repayment(LedgerChange.Type.LOAN_REPAID_PARTIAL, id, amount, changeSeq));
+                partialRepayments.increment();
+                return;
+            }
+            if (loanRepository.deleteIfRepaidInFull(id, userId, amount) == 1) {
+                log.debug("Loan {} fully repaid. Deleted record.", id);
+                recordTombstone(userId, id, LedgerTombstone.Reason.REPAID, changeSeq);
+                publish(userId, repayment(LedgerChange.Type.LOAN_REPAID_FULL, id, amount, changeSeq));
+                fullRepayments.increment();
+                return;
+            }
+            // Neither statement matched: the loan is gone (or not ours), or its balance changed in between
+            if (!loanRepository.existsByIdAndUserId(id, userId)) {
+                log.error("Loan not found with ID {} for user ID {}", id, userId);
+                repaymentsNotFound.increment();
+                throw new ResourceNotFoundException("Loan not found with ID: " + id);
+            }
+            log.debug("Loan {} changed concurrently during repayment, attempt {}", id, attempt);
         }
+        repaymentConflicts.increment();
+        throw new ConcurrencyFailureException("Loan " + id + " kept changing during repayment, please retry");
+    }
+
+    // Delivered to event stream subscribers only once the surrounding transaction commits
+    private void publish(Long userId, LedgerChange change) {
+        eventPublisher.publishEvent(new LedgerChangedEvent(userId, change));
+    }
+
+    private static LedgerChange repayment(LedgerChange.Type type, Long loanId, BigDecimal amount, long changeSeq) {
+        return LedgerChange.builder()
+                .type(type)
+                .seq(changeSeq)
+                .loanId(loanId)
+                .amount(amount)
+                .build();
+    }
+
+    // The row is gone, so delta sync learns about it from this record instead
+    private void recordTombstone(Long userId, Long loanId, LedgerTombstone.Reason reason, long changeSeq) {
+        tombstoneRepository.save(LedgerTombstone.builder()
+                .userId(userId)
+                .entityType(LedgerTombstone.EntityType.LOAN)
+                .entityId(loanId)
+                .reason(reason)
+                .changeSeq(changeSeq)
+                .build());
+    }
+
+    private Loan buildLoan(LoanDto loanDto, Borrower borrower, AppUser owner, long changeSeq) {
+        String finalCurrency = (loanDto.getCurrency() != null && !loanDto.getCurrency().trim().isEmpty())
+                ? loanDto.getCurrency().trim().toUpperCase()
+                : "USD";
+        // A backdated loan can be past due already. Flag it now: the overdue job only walks forward from
+        // its watermark and would never reach it.
+        LocalDate dueDate = loanDto.getDateLent() != null ? Loan.defaultDueDate(loanDto.getDateLent()) : null;
+        LoanStatus status = dueDate != null && dueDate.isBefore(LocalDate.now())
+                ? LoanStatus.OVERDUE
+                : LoanStatus.ACTIVE;
+
+        return Loan.builder()
+                .borrower(borrower)
+                .amount(loanDto.getAmount())
+                .currency(finalCurrency)
+                .dateLent(loanDto.getDateLent())
+                .dueDate(dueDate)
+                .status(status)
+                .user(owner)
+                .changeSeq(changeSeq)
+                .build();
     }
 
     // Internal helper to get entity
     private Loan getLoanEntityById(Long id) {
-        String username = getCurrentUsername();
-        return loanRepository.findByIdAndUserUsername(id, username)
+        Long userId = currentUserResolver.currentUserId();
+        return loanRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> {
-                    log.error("Loan not found with ID {} for user {}", id, username);
+                    log.error("Loan not found with ID {} for user ID {}", id, userId);
                     return new ResourceNotFoundException("Loan not found with ID: " + id);
                 });
     }
 
-    // Internal helper to map Entity to DTO
-    private LoanDto mapToDto(Loan loan) {
+    // Internal helper to map a freshly written Entity to DTO; read paths use projections instead
+    // Package-private so the JMH suite (src/jmh) can measure it directly
+    LoanDto mapToDto(Loan loan) {
         return LoanDto.builder()
                 .id(loan.getId())
                 .borrowerId(loan.getBorrower() != null ? loan.getBorrower().getId() : null)
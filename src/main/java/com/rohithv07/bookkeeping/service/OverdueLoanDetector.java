@@ -0,0 +1,154 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.dto.LedgerChange;
+import com.rohithv07.bookkeeping.dto.OverdueLoanCandidate;
+import com.rohithv07.bookkeeping.model.JobWatermark;
+import com.rohithv07.bookkeeping.model.LedgerVersion;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.JobWatermarkRepository;
+import com.rohithv07.bookkeeping.repository.LedgerVersionRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Flags ACTIVE loans whose due date has passed as OVERDUE, across all users. The job walks
+ * idx_loans_status_due_id in (due date, id) order from a stored watermark date. Each chunk is a key-only
+ * select plus one UPDATE, committed together with the watermark, so no entities are loaded and a run
+ * over millions of loans holds locks for one chunk at a time.
+ * <p>
+ * The watermark day itself is scanned again on every run. A loan due that day can still commit after
+ * a run has passed it: its transaction was in flight at midnight, or another instance's clock was still
+ * on that day. Pooled ids from different instances are not in commit order, so an id position would
+ * skip such a loan for good. The rescan only meets that day's rows still ACTIVE. Loans created with a
+ * due date before the creating instance's today are flagged on creation (see LoanServiceImpl), so with
+ * clocks less than a day apart nothing lands before the watermark day.
+ */
+@Service
+@Slf4j
+public class OverdueLoanDetector {
+
+    static final String WATERMARK = "overdue-loans";
+    static final String FLAGGED_METRIC = "loans.overdue.flagged";
+
+    // Matches the row seeded by the V6 migration
+    private static final LocalDate START_OF_INDEX = LocalDate.of(1970, 1, 1);
+
+    // Explicit constructor injection without Lombok magic
+    private final LoanRepository loanRepository;
+    private final LedgerVersionRepository ledgerVersionRepository;
+    private final JobWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter flagged;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public OverdueLoanDetector(LoanRepository loanRepository, LedgerVersionRepository ledgerVersionRepository,
+            JobWatermarkRepository watermarkRepository, ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${app.overdue.enabled}") boolean enabled,
+            @Value("${app.overdue.chunk-size}") int chunkSize) {
+        this.loanRepository = loanRepository;
+        this.ledgerVersionRepository = ledgerVersionRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.flagged = Counter.builder(FLAGGED_METRIC)
+                .description("Loans flagged overdue by the detection job")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    // A fixed delay rather than a nightly cron: an instance scaled to zero at midnight would miss the cron,
+    // and a run with nothing to do is a single index seek
+    @Scheduled(initialDelayString = "${app.overdue.initial-delay}", fixedDelayString = "${app.overdue.interval}")
+    public void detectOverdueLoans() {
+        if (enabled) {
+            detectOverdueLoans(LocalDate.now());
+        }
+    }
+
+    /**
+     * Flags every ACTIVE loan due before {@code today}, chunk by chunk, and returns how many were flagged.
+     */
+    public long detectOverdueLoans(LocalDate today) {
+        long started = System.nanoTime();
+        long total = 0;
+        int processed;
+        do {
+            processed = transactionTemplate.execute(status -> processChunk(today));
+            total += processed;
+        } while (processed == chunkSize);
+
+        if (total > 0) {
+            log.info("Flagged {} loans as overdue in {} ms", total, (System.nanoTime() - started) / 1_000_000);
+        } else {
+            log.debug("No loans became overdue");
+        }
+        return total;
+    }
+
+    private int processChunk(LocalDate today) {
+        // Locked until commit: instances running the job concurrently take turns per chunk
+        JobWatermark watermark = watermarkRepository.findForUpdate(WATERMARK).orElseGet(this::newWatermark);
+        List<OverdueLoanCandidate> chunk = loanRepository.findOverdueCandidates(LoanStatus.ACTIVE,
+                watermark.getPositionDate(), today, PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // Bump every affected ledger first, in one statement, so the flagged rows can carry the new versions
+        Map<Long, Long> loansPerUser = chunk.stream()
+                .map(OverdueLoanCandidate::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(userId -> userId, Collectors.counting()));
+        if (!loansPerUser.isEmpty()) {
+            ledgerVersionRepository.incrementAll(loansPerUser.keySet());
+        }
+        int updated = loanRepository.markOverdue(chunk.stream().map(OverdueLoanCandidate::getId).toList(),
+                LoanStatus.ACTIVE, LoanStatus.OVERDUE);
+        if (!loansPerUser.isEmpty()) {
+            for (LedgerVersion version : ledgerVersionRepository.findAllByUserIdIn(loansPerUser.keySet())) {
+                // Delivered once this chunk commits, like every other ledger change
+                eventPublisher.publishEvent(new LedgerChangedEvent(version.getUserId(), LedgerChange.builder()
+                        .type(LedgerChange.Type.LOANS_OVERDUE)
+                        .seq(version.getVersion())
+                        .count(loansPerUser.get(version.getUserId()).intValue())
+                        .build()));
+            }
+        }
+
+        // Every ACTIVE loan due before this date has been flagged, up to the late arrivals the rescan covers
+        LocalDate reached = chunk.get(chunk.size() - 1).getDueDate();
+        watermark.setPositionDate(reached);
+        watermark.setUpdatedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+        flagged.increment(updated);
+        log.debug("Flagged {} loans as overdue up to due date {}", updated, reached);
+        return chunk.size();
+    }
+
+    // Only if the seeded row was removed by hand: start again from the beginning of the index
+    private JobWatermark newWatermark() {
+        return JobWatermark.builder()
+                .name(WATERMARK)
+                .positionDate(START_OF_INDEX)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation tokens handed out by the keyset
+ * paginated list endpoints and the full sync. Clients must treat the token as a black box.
+ */
+final class PageCursors {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursors() {
+    }
+
+    record LoanPosition(LocalDate dueDate, Long id) {
+    }
+
+    static String encodeLoan(LocalDate dueDate, Long id) {
+        return encode(dueDate + "|" + id);
+    }
+
+    static LoanPosition decodeLoan(String cursor) {
+        String[] parts = decode(cursor).split("\\|", 2);
+        if (parts.length != 2) {
+            throw invalid(cursor);
+        }
+        try {
+            return new LoanPosition(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    static String encodeBorrower(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    static Long decodeBorrower(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    enum SyncSection {
+        BORROWERS, LOANS
+    }
+
+    // A full sync reports the seq it started at on every page, so the cursor carries it along
+    record SyncPosition(long seq, SyncSection section, Long id) {
+    }
+
+    static String encodeSync(long seq, SyncSection section, Long id) {
+        return encode(seq + "|" + section + "|" + id);
+    }
+
+    static SyncPosition decodeSync(String cursor) {
+        String[] parts = decode(cursor).split("\\|", 3);
+        if (parts.length != 3) {
+            throw invalid(cursor);
+        }
+        try {
+            return new SyncPosition(Long.parseLong(parts[0]), SyncSection.valueOf(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Covers NumberFormatException and unknown section names
+            throw invalid(cursor);
+        }
+    }
+
+    private static String encode(String raw) {
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static InvalidRequestException invalid(String cursor) {
+        return new InvalidRequestException("Invalid page cursor: " + cursor);
+    }
+}
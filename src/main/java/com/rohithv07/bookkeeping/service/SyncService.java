@@ -0,0 +1,7 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.dto.SyncResponse;
+
+public interface SyncService {
+    SyncResponse sync(Long since, String cursor, int size);
+}
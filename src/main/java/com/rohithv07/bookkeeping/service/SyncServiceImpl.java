@@ -0,0 +1,136 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.SyncResponse;
+import com.rohithv07.bookkeeping.exception.InvalidRequestException;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LedgerTombstoneRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Timed("bookkeeping.service")
+@Slf4j
+public class SyncServiceImpl implements SyncService {
+
+    // Explicit constructor injection without Lombok magic
+    private final LoanRepository loanRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final LedgerTombstoneRepository tombstoneRepository;
+    private final LedgerVersionService ledgerVersionService;
+    private final CurrentUserResolver currentUserResolver;
+
+    public SyncServiceImpl(LoanRepository loanRepository, BorrowerRepository borrowerRepository,
+            LedgerTombstoneRepository tombstoneRepository, LedgerVersionService ledgerVersionService,
+            CurrentUserResolver currentUserResolver) {
+        this.loanRepository = loanRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.ledgerVersionService = ledgerVersionService;
+        this.currentUserResolver = currentUserResolver;
+    }
+
+    // One snapshot for all reads: every row visible to the queries below belongs to a version <= seq,
+    // and a version is either fully visible or not at all, so the next sync from seq misses nothing
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponse sync(Long since, String cursor, int size) {
+        if (since != null && since < 0) {
+            throw new InvalidRequestException("since must not be negative");
+        }
+        Long userId = currentUserResolver.currentUserId();
+        if (cursor != null && !cursor.isBlank()) {
+            if (since != null) {
+                throw new InvalidRequestException("cursor continues a full sync and cannot be combined with since");
+            }
+            PageCursors.SyncPosition position = PageCursors.decodeSync(cursor);
+            log.info("Full sync for user ID {} at seq {}, continuing after {} {}", userId, position.seq(),
+                    position.section(), position.id());
+            return fullSyncPage(userId, position, size);
+        }
+        long seq = ledgerVersionService.currentVersion(userId);
+
+        // A seq from the future was not issued for this ledger; start the client over
+        if (since == null || since > seq) {
+            log.info("Full sync for user ID {} at seq {}", userId, seq);
+            return fullSyncPage(userId, new PageCursors.SyncPosition(seq, PageCursors.SyncSection.BORROWERS, 0L),
+                    size);
+        }
+
+        log.info("Delta sync for user ID {} from seq {} to {}", userId, since, seq);
+        if (since == seq) {
+            // Up to date: answered from the version row alone
+            return SyncResponse.builder()
+                    .seq(seq)
+                    .loans(List.of())
+                    .borrowers(List.of())
+                    .tombstones(List.of())
+                    .build();
+        }
+        SyncResponse delta = SyncResponse.builder()
+                .seq(seq)
+                .loans(loanRepository.findDtosByUserIdChangedAfter(userId, since))
+                .borrowers(borrowerRepository.findDtosByUserIdChangedAfter(userId, since))
+                .tombstones(tombstoneRepository.findDtosByUserIdAfter(userId, since))
+                .build();
+        log.debug("Delta has {} loans, {} borrowers and {} tombstones", delta.getLoans().size(),
+                delta.getBorrowers().size(), delta.getTombstones().size());
+        return delta;
+    }
+
+    // Borrowers first, then loans, each in id order. Later pages run in their own snapshots but keep the seq
+    // of the first: anything written meanwhile gets a higher change_seq or a tombstone after it, so the delta
+    // from that seq catches the client up whichever pages the change landed in.
+    private SyncResponse fullSyncPage(Long userId, PageCursors.SyncPosition position, int size) {
+        long seq = position.seq();
+        List<BorrowerDto> borrowers = List.of();
+        Long loansAfter = position.id();
+        if (position.section() == PageCursors.SyncSection.BORROWERS) {
+            // Fetch one extra row to learn whether another page exists without a count query
+            borrowers = borrowerRepository.findPageByUserIdAfter(userId, position.id(), PageRequest.of(0, size + 1));
+            if (borrowers.size() > size) {
+                borrowers = borrowers.subList(0, size);
+                return fullPage(seq, borrowers, List.of(), PageCursors.encodeSync(seq,
+                        PageCursors.SyncSection.BORROWERS, borrowers.get(size - 1).getId()));
+            }
+            loansAfter = 0L;
+        }
+
+        int room = size - borrowers.size();
+        if (room == 0) {
+            // Borrowers filled the page exactly; loans start on the next one
+            return fullPage(seq, borrowers, List.of(),
+                    PageCursors.encodeSync(seq, PageCursors.SyncSection.LOANS, 0L));
+        }
+        List<LoanDto> loans = loanRepository.findPageByUserIdAfter(userId, loansAfter, PageRequest.of(0, room + 1));
+        String nextCursor = null;
+        if (loans.size() > room) {
+            loans = loans.subList(0, room);
+            nextCursor = PageCursors.encodeSync(seq, PageCursors.SyncSection.LOANS, loans.get(room - 1).getId());
+        }
+        log.debug("Full sync page has {} borrowers and {} loans, more available: {}", borrowers.size(),
+                loans.size(), nextCursor != null);
+        return fullPage(seq, borrowers, loans, nextCursor);
+    }
+
+    private static SyncResponse fullPage(long seq, List<BorrowerDto> borrowers, List<LoanDto> loans,
+            String nextCursor) {
+        return SyncResponse.builder()
+                .seq(seq)
+                .full(true)
+                .loans(loans)
+                .borrowers(borrowers)
+                .tombstones(List.of())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+-- Schema as Hibernate mapped it before migrations took over (ddl-auto=update). Databases that were
+-- created that way already have these tables, so every statement here is a no-op where the object
+-- exists, and the ALTERs add the columns that schema update introduced over time to older ledgers.
+-- Runs on PostgreSQL and on H2 in PostgreSQL mode.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+-- Loans, borrowers and tombstones take pooled ids, 50 per round trip (ID_ALLOCATION_SIZE on each entity)
+CREATE SEQUENCE IF NOT EXISTS borrowers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS loans_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ledger_tombstones_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS borrowers (
+    id BIGINT PRIMARY KEY,
+    version BIGINT DEFAULT 0 NOT NULL,
+    change_seq BIGINT DEFAULT 0 NOT NULL,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    user_id BIGINT,
+    CONSTRAINT fk_borrowers_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS loans (
+    id BIGINT PRIMARY KEY,
+    version BIGINT DEFAULT 0 NOT NULL,
+    change_seq BIGINT DEFAULT 0 NOT NULL,
+    borrower_id BIGINT NOT NULL,
+    user_id BIGINT,
+    amount NUMERIC(38, 2),
+    currency VARCHAR(3),
+    date_lent DATE,
+    due_date DATE,
+    status VARCHAR(255),
+    CONSTRAINT fk_loans_borrower FOREIGN KEY (borrower_id) REFERENCES borrowers (id),
+    CONSTRAINT fk_loans_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Cache validators and sync bookkeeping: plain user_id columns, no foreign keys
+CREATE TABLE IF NOT EXISTS ledger_versions (
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ledger_tombstones (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    reason VARCHAR(16) NOT NULL,
+    change_seq BIGINT NOT NULL
+);
+
+-- Columns that older ledgers created by schema update may still be missing
+ALTER TABLE borrowers ADD COLUMN IF NOT EXISTS user_id BIGINT;
+ALTER TABLE borrowers ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE borrowers ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS user_id BIGINT;
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS currency VARCHAR(3);
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS due_date DATE;
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0 NOT NULL;
+
+-- Keyset paginated active-loan listing: WHERE user_id = ? AND status = ? ORDER BY due_date, id
+CREATE INDEX IF NOT EXISTS idx_loans_user_status_due_id ON loans (user_id, status, due_date, id);
+-- Portfolio summary: WHERE user_id = ? GROUP BY currency, status
+CREATE INDEX IF NOT EXISTS idx_loans_user_status_currency ON loans (user_id, status, currency);
+-- Delta sync: WHERE user_id = ? AND change_seq > ?
+CREATE INDEX IF NOT EXISTS idx_loans_user_change_seq ON loans (user_id, change_seq);
+-- Keyset paginated borrower listing: WHERE user_id = ? AND id > ? ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_borrowers_user_id_id ON borrowers (user_id, id);
+-- Delta sync: WHERE user_id = ? AND change_seq > ?
+CREATE INDEX IF NOT EXISTS idx_borrowers_user_change_seq ON borrowers (user_id, change_seq);
+-- Delta sync: WHERE user_id = ? AND change_seq > ? ORDER BY change_seq
+CREATE INDEX IF NOT EXISTS idx_ledger_tombstones_user_seq ON ledger_tombstones (user_id, change_seq);
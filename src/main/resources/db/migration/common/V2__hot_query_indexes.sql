@@ -0,0 +1,6 @@
+-- Duplicate check on every new borrower: WHERE email = ? AND user_id = ?
+CREATE INDEX IF NOT EXISTS idx_borrowers_user_email ON borrowers (user_id, email);
+
+-- Foreign keys are not indexed on their own in PostgreSQL; a borrower's loans are looked up by this
+-- column whenever the borrower is loaded with its loans or removed
+CREATE INDEX IF NOT EXISTS idx_loans_borrower_id ON loans (borrower_id);
@@ -0,0 +1,5 @@
+-- One row per startup data migration that has finished, so later boots skip it with a primary key lookup
+CREATE TABLE IF NOT EXISTS data_migrations (
+    name VARCHAR(100) PRIMARY KEY,
+    completed_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,14 @@
+-- Overdue detection: WHERE status = 'ACTIVE' AND due_date < ? ORDER BY due_date, id, across all users
+CREATE INDEX IF NOT EXISTS idx_loans_status_due_id ON loans (status, due_date, id);
+
+-- Resume position of a batch job, so a run continues where the previous one stopped instead of rescanning
+CREATE TABLE IF NOT EXISTS job_watermarks (
+    name VARCHAR(100) PRIMARY KEY,
+    position_date DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Overdue detection starts from the beginning of the index
+INSERT INTO job_watermarks (name, position_date, updated_at)
+SELECT 'overdue-loans', DATE '1970-01-01', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM job_watermarks WHERE name = 'overdue-loans');
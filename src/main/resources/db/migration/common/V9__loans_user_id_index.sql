@@ -0,0 +1,3 @@
+-- Full sync pages through a user's loans in id order (WHERE user_id = ? AND id > ? ORDER BY id), like
+-- idx_borrowers_user_id_id does for borrowers
+CREATE INDEX IF NOT EXISTS idx_loans_user_id_id ON loans (user_id, id);
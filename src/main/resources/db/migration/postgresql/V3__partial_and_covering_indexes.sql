@@ -0,0 +1,8 @@
+-- PostgreSQL only: H2 has neither partial indexes nor INCLUDE columns.
+
+-- The active-loan listing is the most frequent read. Indexing only ACTIVE rows keeps this index
+-- small however much repaid history a ledger accumulates.
+CREATE INDEX IF NOT EXISTS idx_loans_active_user_due_id ON loans (user_id, due_date, id) WHERE status = 'ACTIVE';
+
+-- username -> id for tokens without the user id claim, answered by an index-only scan
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_username_id ON users (username) INCLUDE (id);
@@ -0,0 +1,7 @@
+-- Loans and borrowers used to be keyed by IDENTITY columns, so on a ledger created before the pooled
+-- sequences existed the sequences start below ids already in use. The pooled optimizer hands out
+-- (nextval - 50, nextval], so keep last_value at least one allocation ahead of MAX(id). GREATEST
+-- leaves a sequence that is already ahead untouched.
+SELECT setval('loans_seq', GREATEST((SELECT last_value FROM loans_seq), (SELECT COALESCE(MAX(id), 0) FROM loans) + 50));
+SELECT setval('borrowers_seq', GREATEST((SELECT last_value FROM borrowers_seq), (SELECT COALESCE(MAX(id), 0) FROM borrowers) + 50));
+SELECT setval('ledger_tombstones_seq', GREATEST((SELECT last_value FROM ledger_tombstones_seq), (SELECT COALESCE(MAX(id), 0) FROM ledger_tombstones) + 50));
@@ -0,0 +1,4 @@
+-- Ledgers created by ddl-auto=update carry the enum check Hibernate generated for loans.status back when
+-- it only had ACTIVE and REPAID, and it rejects OVERDUE. Schemas created by V1 never had the check, and
+-- the set of statuses is owned by LoanStatus, so drop it rather than re-add a list to keep in sync.
+ALTER TABLE loans DROP CONSTRAINT IF EXISTS loans_status_check;
@@ -0,0 +1,7 @@
+-- GET /api/loans lists every unpaid loan, flagged overdue or not, in (due_date, id) order. A partial index
+-- over both statuses serves that order directly; idx_loans_active_user_due_id covered ACTIVE rows only
+-- and has no other reader.
+CREATE INDEX IF NOT EXISTS idx_loans_unpaid_user_due_id ON loans (user_id, due_date, id)
+    WHERE status IN ('ACTIVE', 'OVERDUE');
+
+DROP INDEX IF EXISTS idx_loans_active_user_due_id;
@@ -0,0 +1,123 @@
+package com.rohithv07.bookkeeping.benchmark;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives GET /api/loans from many concurrent clients for a fixed time and prints the throughput.
+ * Subclasses boot the application with platform or virtual request threads; compare their output
+ * from {@code ./gradlew benchmarkTest}.
+ */
+abstract class AbstractThroughputBenchmark {
+
+        private static final int CLIENTS = 400;
+        private static final long WARM_UP_MILLIS = 3_000;
+        private static final long MEASURE_MILLIS = 10_000;
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private JwtUtil jwtUtil;
+
+        private String token;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+
+                AppUser user = userRepository.save(AppUser.builder().username("throughput").password("pass").build());
+                Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                .name("Throughput Borrower")
+                                .email("throughput@example.com")
+                                .user(user)
+                                .build());
+                List<Loan> loans = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                        loans.add(Loan.builder().borrower(borrower).amount(new BigDecimal("10.00")).currency("USD")
+                                        .dateLent(LocalDate.now()).status(LoanStatus.ACTIVE).user(user).build());
+                }
+                loanRepository.saveAll(loans);
+                token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        }
+
+        // Label printed next to the results
+        abstract String mode();
+
+        @Test
+        void concurrentReadThroughput() throws Exception {
+                run(WARM_UP_MILLIS);
+                long[] result = run(MEASURE_MILLIS);
+                System.out.printf("%-16s %d clients: %,d ok, %,d failed, %,.0f req/s%n", mode(), CLIENTS, result[0],
+                                result[1], result[0] * 1000.0 / MEASURE_MILLIS);
+        }
+
+        // Returns {successful, failed} request counts
+        private long[] run(long durationMillis) throws Exception {
+                HttpClient client = HttpClient.newHttpClient();
+                HttpRequest read = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/loans"))
+                                .header("Authorization", "Bearer " + token)
+                                .GET()
+                                .build();
+                AtomicLong ok = new AtomicLong();
+                AtomicLong failed = new AtomicLong();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+                // Clients are virtual threads in both modes, so only the server side differs
+                try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                        for (int i = 0; i < CLIENTS; i++) {
+                                clients.submit(() -> {
+                                        while (System.nanoTime() < deadline) {
+                                                try {
+                                                        int status = client.send(read, HttpResponse.BodyHandlers.discarding())
+                                                                        .statusCode();
+                                                        (status == 200 ? ok : failed).incrementAndGet();
+                                                } catch (Exception e) {
+                                                        failed.incrementAndGet();
+                                                }
+                                        }
+                                });
+                        }
+                }
+                return new long[] { ok.get(), failed.get() };
+        }
+}
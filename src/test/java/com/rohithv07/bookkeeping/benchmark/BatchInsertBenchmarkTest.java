@@ -0,0 +1,122 @@
+package com.rohithv07.bookkeeping.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.dto.BatchRequest;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares importing loans one POST /api/loans call at a time with POST /api/loans/batch.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "admin")
+@Tag("benchmark")
+class BatchInsertBenchmarkTest {
+
+        private static final int LOANS = 5_000;
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        private List<LoanDto> loans;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+
+                AppUser admin = userRepository.save(AppUser.builder().username("admin").password("pass").build());
+                Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                .name("Benchmark Borrower")
+                                .email("benchmark@example.com")
+                                .user(admin)
+                                .build());
+
+                loans = new ArrayList<>(LOANS);
+                for (int i = 0; i < LOANS; i++) {
+                        loans.add(LoanDto.builder()
+                                        .borrowerId(borrower.getId())
+                                        .amount(new BigDecimal("10.00"))
+                                        .dateLent(LocalDate.now())
+                                        .build());
+                }
+        }
+
+        @Test
+        void singleVersusBatchImport() throws Exception {
+                long start = System.nanoTime();
+                for (LoanDto loan : loans) {
+                        mockMvc.perform(post("/api/loans").with(csrf())
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(loan)))
+                                        .andExpect(status().isOk());
+                }
+                report("POST /api/loans (one per row)", System.nanoTime() - start);
+                assertEquals(LOANS, loanRepository.count());
+
+                loanRepository.deleteAll();
+
+                start = System.nanoTime();
+                for (int from = 0; from < LOANS; from += BatchRequest.MAX_ITEMS) {
+                        BatchRequest<LoanDto> request = BatchRequest.<LoanDto>builder()
+                                        .items(loans.subList(from, Math.min(from + BatchRequest.MAX_ITEMS, LOANS)))
+                                        .build();
+                        mockMvc.perform(post("/api/loans/batch").with(csrf())
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(request)))
+                                        .andExpect(status().isOk());
+                }
+                report("POST /api/loans/batch (" + BatchRequest.MAX_ITEMS + " per call)", System.nanoTime() - start);
+                assertEquals(LOANS, loanRepository.count());
+        }
+
+        private static void report(String label, long elapsedNanos) {
+                double seconds = elapsedNanos / 1_000_000_000.0;
+                System.out.printf("%-40s %,d loans in %.2f s -> %,.0f loans/s%n", label, LOANS, seconds, LOANS / seconds);
+        }
+}
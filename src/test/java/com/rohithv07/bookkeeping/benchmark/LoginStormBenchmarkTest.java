@@ -0,0 +1,158 @@
+package com.rohithv07.bookkeeping.benchmark;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures GET /api/loans latency on its own and while many clients hammer POST /api/auth/login.
+ * BCrypt runs on the bounded hashing pool, so reads should keep their Tomcat workers during the storm.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "spring.jpa.show-sql=false",
+                "server.tomcat.threads.max=16",
+                "app.security.login-rate-limit.username.capacity=1000000",
+                "app.security.login-rate-limit.ip.capacity=1000000"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class LoginStormBenchmarkTest {
+
+        private static final int READS = 300;
+        private static final int STORM_CLIENTS = 64;
+        private static final String PASSWORD = "Secret123";
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private PasswordEncoder passwordEncoder;
+
+        @Autowired
+        private JwtUtil jwtUtil;
+
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        private String token;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+
+                AppUser user = userRepository.save(AppUser.builder()
+                                .username("storm")
+                                .password(passwordEncoder.encode(PASSWORD))
+                                .build());
+                token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        }
+
+        @Test
+        void readLatencyDuringLoginStorm() throws Exception {
+                report("GET /api/loans, idle", measureReads());
+
+                AtomicBoolean storming = new AtomicBoolean(true);
+                Map<Integer, AtomicLong> loginStatuses = new ConcurrentHashMap<>();
+                ExecutorService storm = Executors.newFixedThreadPool(STORM_CLIENTS);
+                for (int i = 0; i < STORM_CLIENTS; i++) {
+                        storm.submit(() -> {
+                                HttpRequest login = HttpRequest.newBuilder(uri("/api/auth/login"))
+                                                .header("Content-Type", "application/json")
+                                                .POST(HttpRequest.BodyPublishers.ofString(
+                                                                "{\"username\":\"storm\",\"password\":\"" + PASSWORD + "\"}"))
+                                                .build();
+                                while (storming.get()) {
+                                        try {
+                                                int status = client.send(login, HttpResponse.BodyHandlers.discarding())
+                                                                .statusCode();
+                                                loginStatuses.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+                                        } catch (Exception e) {
+                                                loginStatuses.computeIfAbsent(-1, k -> new AtomicLong()).incrementAndGet();
+                                        }
+                                }
+                        });
+                }
+                Thread.sleep(2_000); // let the hashing pool and its queue fill up
+
+                long[] underStorm = measureReads();
+                storming.set(false);
+                storm.shutdown();
+                storm.awaitTermination(30, TimeUnit.SECONDS);
+
+                report("GET /api/loans, during login storm", underStorm);
+                System.out.println("Login responses by status (-1 = client error): " + loginStatuses);
+        }
+
+        // Sequential reads; returns sorted latencies in microseconds
+        private long[] measureReads() throws Exception {
+                HttpRequest read = HttpRequest.newBuilder(uri("/api/loans"))
+                                .header("Authorization", "Bearer " + token)
+                                .GET()
+                                .build();
+                long[] latencies = new long[READS];
+                for (int i = 0; i < READS; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(read, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = (System.nanoTime() - start) / 1_000;
+                        assertEquals(200, response.statusCode());
+                }
+                Arrays.sort(latencies);
+                return latencies;
+        }
+
+        private URI uri(String path) {
+                return URI.create("http://localhost:" + port + path);
+        }
+
+        private static void report(String label, long[] sortedMicros) {
+                System.out.printf("%-40s p50 %,7d us  p95 %,7d us  p99 %,7d us  max %,7d us%n", label,
+                                percentile(sortedMicros, 50), percentile(sortedMicros, 95),
+                                percentile(sortedMicros, 99), sortedMicros[sortedMicros.length - 1]);
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+                int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+                return sorted[Math.max(0, index)];
+        }
+}
@@ -0,0 +1,19 @@
+package com.rohithv07.bookkeeping.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.threads.virtual.enabled=false")
+@TestPropertySource(properties = { "spring.jpa.show-sql=false", "logging.level.com.rohithv07.bookkeeping=WARN" })
+@ActiveProfiles("test")
+@Tag("benchmark")
+class PlatformThreadThroughputBenchmarkTest extends AbstractThroughputBenchmark {
+
+        @Override
+        String mode() {
+                return "platform threads";
+        }
+}
@@ -0,0 +1,63 @@
+package com.rohithv07.bookkeeping.benchmark;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.threads.virtual.enabled=true")
+@TestPropertySource(properties = { "spring.jpa.show-sql=false", "logging.level.com.rohithv07.bookkeeping=WARN" })
+@ActiveProfiles("test")
+@Tag("benchmark")
+class VirtualThreadThroughputBenchmarkTest extends AbstractThroughputBenchmark {
+
+        private final List<String> pinnedInApplicationCode = new CopyOnWriteArrayList<>();
+        private RecordingStream pinnedEvents;
+
+        @Override
+        String mode() {
+                return "virtual threads";
+        }
+
+        // Records every time a request thread blocks while pinned and keeps the ones raised from our code
+        @BeforeEach
+        void recordPinning() {
+                pinnedEvents = new RecordingStream();
+                pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                pinnedEvents.onEvent("jdk.VirtualThreadPinned", this::collectApplicationFrames);
+                pinnedEvents.startAsync();
+        }
+
+        @AfterEach
+        void assertNoPinningInApplicationCode() {
+                pinnedEvents.close();
+                System.out.println("Pinned virtual threads in application code: " + pinnedInApplicationCode.size());
+                pinnedInApplicationCode.stream().distinct().limit(10).forEach(frame -> System.out.println("  at " + frame));
+                assertTrue(pinnedInApplicationCode.isEmpty(), "application code pinned a carrier thread");
+        }
+
+        private void collectApplicationFrames(RecordedEvent event) {
+                if (event.getStackTrace() == null) {
+                        return;
+                }
+                for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                        String type = frame.getMethod().getType().getName();
+                        if (type.startsWith("com.rohithv07.bookkeeping")) {
+                                pinnedInApplicationCode.add(type + "." + frame.getMethod().getName());
+                                return;
+                        }
+                }
+        }
+}
@@ -0,0 +1,153 @@
+package com.rohithv07.bookkeeping.config;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.DataMigrationRepository;
+import com.rohithv07.bookkeeping.repository.LedgerVersionRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A small chunk size so the backlog below takes several chunks
+@SpringBootTest(properties = "app.data-migration.chunk-size=4")
+@ActiveProfiles("test")
+class DataMigrationRunnerIntegrationTest {
+
+        @Autowired
+        private DataMigrationRunner dataMigrationRunner;
+
+        @Autowired
+        private DataMigrationRepository dataMigrationRepository;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private LedgerVersionRepository ledgerVersionRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        private AppUser firstUser;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                ledgerVersionRepository.deleteAll();
+                userRepository.deleteAll();
+                dataMigrationRepository.deleteAll();
+                currentUserResolver.evictAll();
+
+                firstUser = userRepository.save(AppUser.builder().username("first").password("pass").build());
+                userRepository.save(AppUser.builder().username("second").password("pass").build());
+        }
+
+        @Test
+        void run_ShouldHandOrphansToTheFirstUserInChunksAndRecordCompletion() throws Exception {
+                seedOrphans(6, 2);
+
+                dataMigrationRunner.run();
+
+                assertEquals(0, countWhere("borrowers", "user_id IS NULL"));
+                assertEquals(0, countWhere("loans", "user_id IS NULL"));
+                assertEquals(6, countWhere("borrowers", "user_id = " + firstUser.getId()));
+                assertEquals(12, countWhere("loans", "user_id = " + firstUser.getId()));
+                assertTrue(dataMigrationRepository.existsById(DataMigrationRunner.LEGACY_OWNER_MIGRATION));
+
+                // Every user got a ledger version, and the handed-over rows carry a seq past zero for delta sync
+                assertEquals(2, ledgerVersionRepository.count());
+                long version = ledgerVersionRepository.findVersionByUserId(firstUser.getId()).orElseThrow();
+                assertTrue(version > 0);
+                assertEquals(0, countWhere("loans", "change_seq = 0 OR change_seq > " + version));
+        }
+
+        @Test
+        void run_WhenAlreadyCompleted_ShouldSkipWithASingleLookup() throws Exception {
+                dataMigrationRunner.run();
+                seedOrphans(1, 1);
+
+                QueryCounter.reset();
+                dataMigrationRunner.run();
+                QueryCounter.assertCount(1);
+                assertEquals(1, countWhere("loans", "user_id IS NULL"));
+        }
+
+        @Test
+        void run_WithOrphansButNoUsers_ShouldRetryOnTheNextBoot() throws Exception {
+                userRepository.deleteAll();
+                seedOrphans(1, 1);
+
+                dataMigrationRunner.run();
+
+                assertFalse(dataMigrationRepository.existsById(DataMigrationRunner.LEGACY_OWNER_MIGRATION));
+                assertEquals(1, countWhere("borrowers", "user_id IS NULL"));
+        }
+
+        @Test
+        void markCompleted_WhenAnotherInstanceRecordedItFirst_ShouldReturnZeroInsteadOfFailing() {
+                transactionTemplate.executeWithoutResult(status -> assertEquals(1, dataMigrationRepository
+                                .markCompleted(DataMigrationRunner.LEGACY_OWNER_MIGRATION, LocalDateTime.now())));
+
+                // A replica that also missed the marker at boot and finished second
+                transactionTemplate.executeWithoutResult(status -> assertEquals(0, dataMigrationRepository
+                                .markCompleted(DataMigrationRunner.LEGACY_OWNER_MIGRATION, LocalDateTime.now())));
+                assertEquals(1, dataMigrationRepository.count());
+        }
+
+        private long countWhere(String table, String condition) {
+                return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + condition, Long.class);
+        }
+
+        private void seedOrphans(int borrowers, int loansPerBorrower) {
+                List<Loan> loans = new ArrayList<>();
+                for (int i = 1; i <= borrowers; i++) {
+                        Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                        .name("Legacy " + i)
+                                        .email("legacy" + i + "@example.com")
+                                        .build());
+                        for (int j = 0; j < loansPerBorrower; j++) {
+                                loans.add(Loan.builder()
+                                                .borrower(borrower)
+                                                .amount(new BigDecimal("40.00"))
+                                                .dateLent(LocalDate.now())
+                                                .status(LoanStatus.ACTIVE)
+                                                .build());
+                        }
+                }
+                loanRepository.saveAll(loans);
+        }
+}
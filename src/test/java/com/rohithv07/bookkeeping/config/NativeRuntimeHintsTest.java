@@ -0,0 +1,47 @@
+package com.rohithv07.bookkeeping.config;
+
+import com.rohithv07.bookkeeping.dto.LedgerChange;
+import com.rohithv07.bookkeeping.dto.LoanDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+        private RuntimeHints hints;
+
+        @BeforeEach
+        void setUp() {
+                hints = new RuntimeHints();
+                new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        }
+
+        @Test
+        void registerHints_ShouldCoverJsonPayloadsAndQueryProjections() {
+                assertTrue(RuntimeHintsPredicates.reflection().onType(LedgerChange.class).test(hints));
+                assertTrue(RuntimeHintsPredicates.reflection().onType(LoanDto.class)
+                                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        }
+
+        // registerTypeIfPresent skips unknown names silently, so a renamed library class would drop its hint
+        @Test
+        void registerHints_ShouldFindEveryLibraryTypeOnTheClasspath() {
+                NativeRuntimeHints.JJWT_TYPES.forEach(type -> assertTrue(
+                                RuntimeHintsPredicates.reflection().onType(TypeReference.of(type)).test(hints), type));
+                NativeRuntimeHints.BUCKET4J_TYPES.forEach(type -> assertTrue(
+                                RuntimeHintsPredicates.reflection().onType(TypeReference.of(type)).test(hints), type));
+        }
+
+        @Test
+        void registerHints_ShouldIncludeMigrationsAndServiceFiles() {
+                assertTrue(RuntimeHintsPredicates.resource()
+                                .forResource("db/migration/common/V1__baseline_schema.sql").test(hints));
+                assertTrue(RuntimeHintsPredicates.resource()
+                                .forResource("META-INF/services/io.jsonwebtoken.io.Deserializer").test(hints));
+        }
+}
@@ -0,0 +1,64 @@
+package com.rohithv07.bookkeeping.config;
+
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Few iterations and a single hash keep the warm-up short enough for the suite
+@SpringBootTest(properties = {
+                "app.warmup.enabled=true",
+                "app.warmup.iterations=50",
+                "app.warmup.password-hashes=1"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class StartupWarmupIntegrationTest {
+
+        @Autowired
+        private StartupWarmup startupWarmup;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void warmup_ShouldReportReadyOnceFinishedAndLeaveDataUntouched() throws Exception {
+                long loans = loanRepository.count();
+                long borrowers = borrowerRepository.count();
+
+                long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+                while (startupWarmup.phase() != StartupWarmup.Phase.COMPLETED && System.nanoTime() < deadline) {
+                        Thread.sleep(50);
+                }
+                assertEquals(StartupWarmup.Phase.COMPLETED, startupWarmup.phase());
+
+                mockMvc.perform(get("/actuator/health/readiness"))
+                                .andExpect(status().isOk());
+
+                StartupWarmup.Report report = startupWarmup.report();
+                assertNotNull(report);
+                assertEquals(50, report.iterations());
+                assertTrue(report.steps().keySet().containsAll(List.of("jwt", "jackson", "queries", "bcrypt")));
+                assertEquals(loans, loanRepository.count());
+                assertEquals(borrowers, borrowerRepository.count());
+        }
+}
@@ -0,0 +1,140 @@
+package com.rohithv07.bookkeeping.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.dto.LoginRequest;
+import com.rohithv07.bookkeeping.dto.SignupRequest;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerIntegrationTest {
+
+        private static final String PASSWORD = "Secret123";
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+        }
+
+        @Test
+        void signupThenLogin_ShouldHashAndVerifyOffTheServletThread() throws Exception {
+                SignupRequest signup = SignupRequest.builder().username("newuser").password(PASSWORD).build();
+                MvcResult signupResult = mockMvc.perform(post("/api/auth/signup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(signup)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(signupResult))
+                                .andExpect(status().isOk());
+
+                assertTrue(userRepository.findByUsername("newuser").orElseThrow().getPassword().startsWith("$2"));
+
+                LoginRequest login = LoginRequest.builder().username("newuser").password(PASSWORD).build();
+                MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(login)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(loginResult))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Set-Cookie", containsString("jwt=")))
+                                .andExpect(jsonPath("$.token").exists());
+        }
+
+        @Test
+        void login_WrongPassword_ShouldReturnUnauthorized() throws Exception {
+                SignupRequest signup = SignupRequest.builder().username("wrongpass").password(PASSWORD).build();
+                mockMvc.perform(asyncDispatch(mockMvc.perform(post("/api/auth/signup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(signup)))
+                                .andReturn()))
+                                .andExpect(status().isOk());
+
+                LoginRequest login = LoginRequest.builder().username("wrongpass").password("Wrong1234").build();
+                MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(login)))
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(loginResult))
+                                .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        void repeatedLogin_ShouldResolveTheUserFromTheSecondLevelCache() throws Exception {
+                SignupRequest signup = SignupRequest.builder().username("cached").password(PASSWORD).build();
+                mockMvc.perform(asyncDispatch(mockMvc.perform(post("/api/auth/signup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(signup)))
+                                .andReturn()))
+                                .andExpect(status().isOk());
+                entityManagerFactory.getCache().evictAll();
+                LoginRequest login = LoginRequest.builder().username("cached").password(PASSWORD).build();
+
+                QueryCounter.reset();
+                login(login);
+                assertNotEquals(0, QueryCounter.count());
+
+                // username -> id from the natural-id region, the user row from the entity region
+                QueryCounter.reset();
+                login(login);
+                QueryCounter.assertCount(0);
+        }
+
+        private void login(LoginRequest login) throws Exception {
+                MvcResult result = mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(login)))
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk());
+        }
+}
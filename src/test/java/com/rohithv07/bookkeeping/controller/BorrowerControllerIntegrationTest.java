@@ -1,11 +1,19 @@
 package com.rohithv07.bookkeeping.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.config.WireFormats;
+import com.rohithv07.bookkeeping.dto.BatchRequest;
 import com.rohithv07.bookkeeping.dto.BorrowerDto;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.model.Borrower;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.service.LedgerVersionService;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,10 +24,17 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,14 +56,26 @@ class BorrowerControllerIntegrationTest {
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private LedgerVersionService ledgerVersionService;
+
         private AppUser adminUser;
 
         @BeforeEach
         void setUp() {
                 borrowerRepository.deleteAll();
                 userRepository.deleteAll();
+                // Users are recreated per test with fresh ids, so drop any cached username -> id mapping
+                currentUserResolver.evictAll();
                 adminUser = AppUser.builder().username("admin").password("pass").build();
                 adminUser = userRepository.save(adminUser);
+                ledgerVersionService.initialize(adminUser.getId());
         }
 
         @Test
@@ -68,6 +95,25 @@ class BorrowerControllerIntegrationTest {
                                 .andExpect(jsonPath("$.email").value("integratetest@example.com"));
         }
 
+        @Test
+        void addBorrowers_Batch_ShouldCreateAllItems() throws Exception {
+                BatchRequest<BorrowerDto> request = BatchRequest.<BorrowerDto>builder()
+                                .items(List.of(
+                                                BorrowerDto.builder().name("Batch One").email("one@example.com").build(),
+                                                BorrowerDto.builder().name("Batch Two").email("two@example.com").build()))
+                                .build();
+
+                mockMvc.perform(post("/api/borrowers/batch").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.created").value(2))
+                                .andExpect(jsonPath("$.failed").value(0))
+                                .andExpect(jsonPath("$.results[1].item.name").value("Batch Two"));
+
+                assertEquals(2, borrowerRepository.count());
+        }
+
         @Test
         void getAllBorrowers_ShouldReturnList() throws Exception {
                 Borrower borrower = Borrower.builder()
@@ -83,6 +129,55 @@ class BorrowerControllerIntegrationTest {
                                 .andExpect(jsonPath("$[0].name").value("List User"));
         }
 
+        @Test
+        void getAllBorrowers_WithPageSize_ShouldFollowCursorToLastPage() throws Exception {
+                for (int i = 1; i <= 3; i++) {
+                        borrowerRepository.save(Borrower.builder()
+                                        .name("Page User " + i)
+                                        .email("pageuser" + i + "@example.com")
+                                        .user(adminUser)
+                                        .build());
+                }
+
+                String cursor = mockMvc.perform(get("/api/borrowers").param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name").value("Page User 1"))
+                                .andExpect(header().exists("X-Next-Cursor"))
+                                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+                mockMvc.perform(get("/api/borrowers").param("size", "2").param("cursor", cursor))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Page User 3"))
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        }
+
+        @Test
+        void getAllBorrowers_ShouldUseSingleBorrowerQuery() throws Exception {
+                for (int i = 1; i <= 5; i++) {
+                        borrowerRepository.save(Borrower.builder()
+                                        .name("Statement User " + i)
+                                        .email("statement" + i + "@example.com")
+                                        .user(adminUser)
+                                        .build());
+                }
+
+                // Warm the username -> id cache used for mock principals that carry no user id
+                currentUserResolver.currentUserId();
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+                QueryCounter.reset();
+
+                mockMvc.perform(get("/api/borrowers"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(5)));
+
+                // The ledger version for the ETag, then one projection query
+                QueryCounter.assertCount(2);
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
         @Test
         void getBorrowerById_ExistingId_ShouldReturnBorrower() throws Exception {
                 Borrower borrower = Borrower.builder()
@@ -104,4 +199,114 @@ class BorrowerControllerIntegrationTest {
                                 .andExpect(status().isNotFound())
                                 .andExpect(jsonPath("$.message").value("Borrower not found with ID: 99999"));
         }
+
+        // Query budgets: enough borrowers that a per-row lookup (N+1) shows up as extra statements
+
+        @Test
+        void queryBudget_ReadEndpoints_ShouldNotGrowWithBorrowerCount() throws Exception {
+                List<Borrower> borrowers = seedBorrowers(20);
+                currentUserResolver.currentUserId();
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/borrowers"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(20)));
+                QueryCounter.assertCount(2);
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/borrowers/" + borrowers.get(0).getId()))
+                                .andExpect(status().isOk());
+                QueryCounter.assertCount(1);
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/borrowers/99999"))
+                                .andExpect(status().isNotFound());
+                QueryCounter.assertCount(1);
+        }
+
+        @Test
+        void queryBudget_AddBorrower_ShouldInsertOnly() throws Exception {
+                seedBorrowers(20);
+                currentUserResolver.currentUserId();
+                BorrowerDto borrowerDto = BorrowerDto.builder().name("Budget User").email("budget@example.com").build();
+
+                QueryCounter.reset();
+                mockMvc.perform(post("/api/borrowers").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(borrowerDto)))
+                                .andExpect(status().isOk());
+
+                // Ledger version bump and read-back, then the insert
+                QueryCounter.assertCount(3);
+        }
+
+        @Test
+        void queryBudget_AddBorrowersBatch_ShouldNotGrowWithItemCount() throws Exception {
+                currentUserResolver.currentUserId();
+                List<BorrowerDto> items = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                        items.add(BorrowerDto.builder().name("Batch " + i).email("batch" + i + "@example.com").build());
+                }
+
+                QueryCounter.reset();
+                mockMvc.perform(post("/api/borrowers/batch").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                                BatchRequest.<BorrowerDto>builder().items(items).build())))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.created").value(20));
+
+                // Ledger version bump and read-back, then a single batched insert
+                QueryCounter.assertCount(3);
+        }
+
+        @Test
+        void getAllBorrowers_IfNoneMatch_ShouldAnswerNotModifiedUntilABorrowerIsAdded() throws Exception {
+                seedBorrowers(5);
+
+                String etag = mockMvc.perform(get("/api/borrowers"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                mockMvc.perform(get("/api/borrowers").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified());
+
+                mockMvc.perform(post("/api/borrowers").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(BorrowerDto.builder()
+                                                .name("New Borrower").email("new@example.com").build())))
+                                .andExpect(status().isOk());
+
+                String changed = mockMvc.perform(get("/api/borrowers").header("If-None-Match", etag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(6)))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertNotEquals(etag, changed);
+        }
+
+        @Test
+        void getAllBorrowers_AcceptColumnarJson_ShouldReturnOneArrayPerField() throws Exception {
+                seedBorrowers(4);
+
+                mockMvc.perform(get("/api/borrowers").accept(WireFormats.COLUMNAR_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Vary", containsString("Accept")))
+                                .andExpect(jsonPath("$.rows").value(4))
+                                .andExpect(jsonPath("$.columns.name", hasSize(4)))
+                                .andExpect(jsonPath("$.columns.email[3]").value("seeded4@example.com"))
+                                .andExpect(jsonPath("$.columns.phone[0]").doesNotExist());
+        }
+
+        private List<Borrower> seedBorrowers(int count) {
+                List<Borrower> borrowers = new ArrayList<>();
+                for (int i = 1; i <= count; i++) {
+                        borrowers.add(borrowerRepository.save(Borrower.builder()
+                                        .name("Seeded User " + i)
+                                        .email("seeded" + i + "@example.com")
+                                        .user(adminUser)
+                                        .build()));
+                }
+                return borrowers;
+        }
 }
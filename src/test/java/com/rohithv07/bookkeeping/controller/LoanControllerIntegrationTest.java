@@ -1,14 +1,24 @@
 package com.rohithv07.bookkeeping.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.rohithv07.bookkeeping.config.WireFormats;
+import com.rohithv07.bookkeeping.dto.BatchRequest;
 import com.rohithv07.bookkeeping.dto.LoanDto;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.model.Borrower;
 import com.rohithv07.bookkeeping.model.Loan;
 import com.rohithv07.bookkeeping.model.LoanStatus;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.service.LedgerVersionService;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
 import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,14 +27,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.springframework.security.test.context.support.WithMockUser;
@@ -50,6 +71,15 @@ class LoanControllerIntegrationTest {
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private LedgerVersionService ledgerVersionService;
+
         private Borrower savedBorrower;
         private AppUser adminUser;
 
@@ -58,9 +88,12 @@ class LoanControllerIntegrationTest {
                 loanRepository.deleteAll();
                 borrowerRepository.deleteAll();
                 userRepository.deleteAll();
+                // Users are recreated per test with fresh ids, so drop any cached username -> id mapping
+                currentUserResolver.evictAll();
 
                 adminUser = AppUser.builder().username("admin").password("pass").build();
                 adminUser = userRepository.save(adminUser);
+                ledgerVersionService.initialize(adminUser.getId());
 
                 Borrower borrower = Borrower.builder()
                                 .name("Integration Loan User")
@@ -86,6 +119,173 @@ class LoanControllerIntegrationTest {
                                 .andExpect(jsonPath("$.amount").value(1500.5));
         }
 
+        @Test
+        void addLoans_Batch_ShouldCreateValidItemsAndReportUnknownBorrowers() throws Exception {
+                LoanDto valid = LoanDto.builder()
+                                .borrowerId(savedBorrower.getId())
+                                .amount(new BigDecimal("10.00"))
+                                .dateLent(LocalDate.now())
+                                .build();
+                LoanDto unknownBorrower = LoanDto.builder()
+                                .borrowerId(99999L)
+                                .amount(new BigDecimal("20.00"))
+                                .dateLent(LocalDate.now())
+                                .build();
+                BatchRequest<LoanDto> request = BatchRequest.<LoanDto>builder()
+                                .items(List.of(valid, unknownBorrower, valid))
+                                .build();
+
+                mockMvc.perform(post("/api/loans/batch").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.created").value(2))
+                                .andExpect(jsonPath("$.failed").value(1))
+                                .andExpect(jsonPath("$.results", hasSize(3)))
+                                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                                .andExpect(jsonPath("$.results[0].item.id").exists())
+                                .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                                .andExpect(jsonPath("$.results[1].index").value(1))
+                                .andExpect(jsonPath("$.results[2].status").value("CREATED"));
+
+                assertEquals(2, loanRepository.count());
+        }
+
+        @Test
+        void addLoans_BatchWithInvalidItem_ShouldRejectWholePayload() throws Exception {
+                LoanDto invalid = LoanDto.builder()
+                                .borrowerId(savedBorrower.getId())
+                                .amount(new BigDecimal("-5.00"))
+                                .dateLent(LocalDate.now())
+                                .build();
+                BatchRequest<LoanDto> request = BatchRequest.<LoanDto>builder()
+                                .items(List.of(invalid))
+                                .build();
+
+                mockMvc.perform(post("/api/loans/batch").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$['items[0].amount']").exists());
+
+                assertEquals(0, loanRepository.count());
+        }
+
+        @Test
+        void getSummary_ShouldAggregatePerCurrencyInOneQuery() throws Exception {
+                loanRepository.save(Loan.builder().borrower(savedBorrower).amount(new BigDecimal("100.00"))
+                                .currency("USD").dateLent(LocalDate.now().minusDays(40))
+                                .dueDate(LocalDate.now().minusDays(10)).status(LoanStatus.ACTIVE).user(adminUser).build());
+                loanRepository.save(Loan.builder().borrower(savedBorrower).amount(new BigDecimal("50.00"))
+                                .currency("USD").dateLent(LocalDate.now()).dueDate(LocalDate.now().plusDays(30))
+                                .status(LoanStatus.ACTIVE).user(adminUser).build());
+                loanRepository.save(Loan.builder().borrower(savedBorrower).amount(new BigDecimal("20.00"))
+                                .currency("EUR").dateLent(LocalDate.now()).status(LoanStatus.ACTIVE).user(adminUser).build());
+                // Past due but repaid, so neither outstanding nor overdue
+                loanRepository.save(Loan.builder().borrower(savedBorrower).amount(new BigDecimal("30.00"))
+                                .currency("USD").dateLent(LocalDate.now().minusDays(40))
+                                .dueDate(LocalDate.now().minusDays(10)).status(LoanStatus.REPAID).user(adminUser).build());
+
+                currentUserResolver.currentUserId();
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+                QueryCounter.reset();
+
+                mockMvc.perform(get("/api/loans/summary"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalLoans").value(4))
+                                .andExpect(jsonPath("$.activeLoans").value(3))
+                                .andExpect(jsonPath("$.overdueLoans").value(1))
+                                .andExpect(jsonPath("$.outstandingByCurrency.USD").value(150.0))
+                                .andExpect(jsonPath("$.outstandingByCurrency.EUR").value(20.0))
+                                .andExpect(jsonPath("$.groups", hasSize(3)));
+
+                QueryCounter.assertCount(1);
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        void exportLedger_Csv_ShouldStreamBorrowersLoansAndTombstonesWithQuotedFields() throws Exception {
+                Borrower quoted = borrowerRepository.save(Borrower.builder()
+                                .name("Doe, \"JD\" John")
+                                .email("quoted@example.com")
+                                .phone("555-0100")
+                                .user(adminUser)
+                                .build());
+                Loan first = loanRepository.save(Loan.builder().borrower(savedBorrower).amount(new BigDecimal("100.00"))
+                                .currency("USD").dateLent(LocalDate.now()).status(LoanStatus.ACTIVE).user(adminUser).build());
+                Loan second = loanRepository.save(Loan.builder().borrower(quoted).amount(new BigDecimal("20.50"))
+                                .currency("EUR").dateLent(LocalDate.now()).status(LoanStatus.REPAID).user(adminUser).build());
+                Loan deleted = loanRepository.save(Loan.builder().borrower(quoted).amount(new BigDecimal("7.00"))
+                                .currency("EUR").dateLent(LocalDate.now()).status(LoanStatus.ACTIVE).user(adminUser).build());
+                mockMvc.perform(delete("/api/loans/{id}", deleted.getId()).with(csrf()))
+                                .andExpect(status().isNoContent());
+                long deletedSeq = ledgerVersionService.currentVersion(adminUser.getId());
+
+                MvcResult result = mockMvc.perform(get("/api/loans/export").param("format", "csv"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                                .andExpect(header().string("Content-Disposition", containsString("ledger.csv")))
+                                .andExpect(content().string(
+                                                "type,id,name,email,phone\n"
+                                                                + "borrower," + savedBorrower.getId()
+                                                                + ",Integration Loan User,loanuser@example.com,\n"
+                                                                + "borrower," + quoted.getId()
+                                                                + ",\"Doe, \"\"JD\"\" John\",quoted@example.com,555-0100\n"
+                                                                + "\n"
+                                                                + "type,id,borrowerId,borrowerName,amount,currency,dateLent,dueDate,status\n"
+                                                                + "loan," + first.getId() + "," + savedBorrower.getId()
+                                                                + ",Integration Loan User,100.00,USD,"
+                                                                + LocalDate.now() + ",,ACTIVE\n"
+                                                                + "loan," + second.getId() + "," + quoted.getId()
+                                                                + ",\"Doe, \"\"JD\"\" John\",20.50,EUR,"
+                                                                + LocalDate.now() + ",,REPAID\n"
+                                                                + "\n"
+                                                                + "type,entityType,id,reason,changeSeq\n"
+                                                                + "tombstone,LOAN," + deleted.getId() + ",DELETED,"
+                                                                + deletedSeq + "\n"));
+        }
+
+        @Test
+        void exportLedger_Ndjson_ShouldStreamOneTypedJsonObjectPerLine() throws Exception {
+                Loan loan = Loan.builder().borrower(savedBorrower).amount(new BigDecimal("100.00"))
+                                .currency("USD").dateLent(LocalDate.now()).status(LoanStatus.ACTIVE).user(adminUser).build();
+                loanRepository.save(loan);
+                loanRepository.save(Loan.builder().borrower(savedBorrower).amount(new BigDecimal("5.00"))
+                                .currency("USD").dateLent(LocalDate.now()).status(LoanStatus.ACTIVE).user(adminUser).build());
+
+                MvcResult result = mockMvc.perform(get("/api/loans/export").param("format", "ndjson"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                String body = mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                                .andReturn().getResponse().getContentAsString();
+
+                String[] lines = body.split("\n");
+                assertEquals(3, lines.length);
+                JsonNode borrower = objectMapper.readTree(lines[0]);
+                assertEquals("borrower", borrower.get("type").asText());
+                assertEquals(savedBorrower.getId(), borrower.get("id").asLong());
+                assertEquals("loanuser@example.com", borrower.get("email").asText());
+                JsonNode exported = objectMapper.readTree(lines[1]);
+                assertEquals("loan", exported.get("type").asText());
+                assertEquals(loan.getId(), exported.get("id").asLong());
+                assertEquals("Integration Loan User", exported.get("borrowerName").asText());
+                assertEquals("loan", objectMapper.readTree(lines[2]).get("type").asText());
+        }
+
+        @Test
+        void exportLedger_UnsupportedFormat_ShouldReturnBadRequest() throws Exception {
+                mockMvc.perform(get("/api/loans/export").param("format", "xml"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @Test
         void getAllActiveLoans_ShouldReturnList() throws Exception {
                 Loan loan = Loan.builder()
@@ -104,6 +304,155 @@ class LoanControllerIntegrationTest {
                                 .andExpect(jsonPath("$[0].status").value("ACTIVE"));
         }
 
+        @Test
+        void getAllActiveLoans_WithPageSize_ShouldFollowCursorToLastPage() throws Exception {
+                for (int i = 1; i <= 3; i++) {
+                        loanRepository.save(Loan.builder()
+                                        .borrower(savedBorrower)
+                                        .amount(new BigDecimal("10.00"))
+                                        .dateLent(LocalDate.now())
+                                        .dueDate(LocalDate.now().plusDays(i))
+                                        .status(LoanStatus.ACTIVE)
+                                        .user(adminUser)
+                                        .build());
+                }
+
+                String cursor = mockMvc.perform(get("/api/loans").param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(header().exists("X-Next-Cursor"))
+                                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+                mockMvc.perform(get("/api/loans").param("size", "2").param("cursor", cursor))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].dueDate").value(LocalDate.now().plusDays(3).toString()))
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        }
+
+        @Test
+        void getOverdueLoans_ShouldListOnlyOverdueLoansInDueDateOrder() throws Exception {
+                for (int i = 1; i <= 2; i++) {
+                        loanRepository.save(Loan.builder()
+                                        .borrower(savedBorrower)
+                                        .amount(new BigDecimal("10.00"))
+                                        .dateLent(LocalDate.now().minusMonths(2))
+                                        .dueDate(LocalDate.now().minusDays(i))
+                                        .status(LoanStatus.OVERDUE)
+                                        .user(adminUser)
+                                        .build());
+                }
+                loanRepository.save(Loan.builder()
+                                .borrower(savedBorrower)
+                                .amount(new BigDecimal("20.00"))
+                                .dateLent(LocalDate.now())
+                                .dueDate(LocalDate.now().plusMonths(1))
+                                .status(LoanStatus.ACTIVE)
+                                .user(adminUser)
+                                .build());
+
+                mockMvc.perform(get("/api/loans/overdue"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].dueDate").value(LocalDate.now().minusDays(2).toString()))
+                                .andExpect(jsonPath("$[1].status").value("OVERDUE"));
+
+                // The main listing keeps every unpaid loan, flagged or not, in due date order
+                mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(3)))
+                                .andExpect(jsonPath("$[0].status").value("OVERDUE"))
+                                .andExpect(jsonPath("$[1].status").value("OVERDUE"))
+                                .andExpect(jsonPath("$[2].status").value("ACTIVE"));
+        }
+
+        @Test
+        void addLoan_AlreadyPastDue_ShouldBeCreatedOverdue() throws Exception {
+                LoanDto loanDto = LoanDto.builder()
+                                .borrowerId(savedBorrower.getId())
+                                .amount(new BigDecimal("75.00"))
+                                .dateLent(LocalDate.now().minusMonths(3))
+                                .build();
+
+                mockMvc.perform(post("/api/loans").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loanDto)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("OVERDUE"));
+
+                mockMvc.perform(get("/api/loans/overdue"))
+                                .andExpect(jsonPath("$", hasSize(1)));
+                // Existing clients of the main listing still see it
+                mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].status").value("OVERDUE"));
+        }
+
+        @Test
+        void getAllActiveLoans_InvalidCursor_ShouldReturnBadRequest() throws Exception {
+                mockMvc.perform(get("/api/loans").param("cursor", "not-a-cursor"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void getAllActiveLoans_ManyBorrowers_ShouldUseSingleLoanQuery() throws Exception {
+                for (int i = 1; i <= 5; i++) {
+                        Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                        .name("Statement User " + i)
+                                        .email("statement" + i + "@example.com")
+                                        .user(adminUser)
+                                        .build());
+                        loanRepository.save(Loan.builder()
+                                        .borrower(borrower)
+                                        .amount(new BigDecimal("25.00"))
+                                        .dateLent(LocalDate.now())
+                                        .dueDate(LocalDate.now().plusMonths(1))
+                                        .status(LoanStatus.ACTIVE)
+                                        .user(adminUser)
+                                        .build());
+                }
+
+                // Warm the username -> id cache used for mock principals that carry no user id
+                currentUserResolver.currentUserId();
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+                QueryCounter.reset();
+
+                mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(5)))
+                                .andExpect(jsonPath("$[0].borrowerName").exists());
+
+                // The ledger version for the ETag, then one joined projection query regardless of how many
+                // distinct borrowers are referenced
+                QueryCounter.assertCount(2);
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        void getLoanById_ShouldUseSingleStatement() throws Exception {
+                Loan savedLoan = loanRepository.save(Loan.builder()
+                                .borrower(savedBorrower)
+                                .amount(new BigDecimal("75.00"))
+                                .dateLent(LocalDate.now())
+                                .dueDate(LocalDate.now().plusMonths(1))
+                                .status(LoanStatus.ACTIVE)
+                                .user(adminUser)
+                                .build());
+
+                // Warm the username -> id cache used for mock principals that carry no user id
+                currentUserResolver.currentUserId();
+                QueryCounter.reset();
+
+                mockMvc.perform(get("/api/loans/" + savedLoan.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.borrowerName").value("Integration Loan User"));
+
+                QueryCounter.assertCount(1);
+        }
+
         @Test
         void deleteLoan_ShouldReturnNoContent() throws Exception {
                 Loan loan = Loan.builder()
@@ -141,5 +490,341 @@ class LoanControllerIntegrationTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(request)))
                                 .andExpect(status().isNoContent());
+
+                Loan reloaded = loanRepository.findById(savedLoan.getId()).orElseThrow();
+                assertEquals(0, new BigDecimal("300.00").compareTo(reloaded.getAmount()));
+                assertEquals(savedLoan.getVersion() + 1, reloaded.getVersion());
+        }
+
+        @Test
+        void repayLoan_FullAmount_ShouldDeleteLoan() throws Exception {
+                Loan savedLoan = loanRepository.save(Loan.builder()
+                                .borrower(savedBorrower)
+                                .amount(new BigDecimal("500.00"))
+                                .dateLent(LocalDate.now())
+                                .status(LoanStatus.ACTIVE)
+                                .user(adminUser)
+                                .build());
+
+                mockMvc.perform(put("/api/loans/" + savedLoan.getId() + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 500.00}"))
+                                .andExpect(status().isNoContent());
+
+                assertEquals(0, loanRepository.count());
+        }
+
+        @Test
+        void repayLoan_UnknownLoan_ShouldReturnNotFound() throws Exception {
+                mockMvc.perform(put("/api/loans/99999/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 10.00}"))
+                                .andExpect(status().isNotFound());
+        }
+
+        // Query budgets: the ledger holds several borrowers with several loans each, so any per-row
+        // lookup (N+1) shows up as extra statements
+
+        @Test
+        void queryBudget_ReadEndpoints_ShouldNotGrowWithLedgerSize() throws Exception {
+                List<Loan> loans = seedLedger(10, 3);
+                currentUserResolver.currentUserId();
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(30)));
+                QueryCounter.assertCount(2);
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/loans/summary"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalLoans").value(30));
+                QueryCounter.assertCount(1);
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/loans/" + loans.get(0).getId()))
+                                .andExpect(status().isOk());
+                QueryCounter.assertCount(1);
+
+                QueryCounter.reset();
+                MvcResult export = mockMvc.perform(get("/api/loans/export").param("format", "ndjson"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(export))
+                                .andExpect(status().isOk());
+                // One cursor per section (borrowers, loans, tombstones), however many rows each holds
+                QueryCounter.assertCount(3);
+        }
+
+        @Test
+        void queryBudget_AddLoan_ShouldServeTheBorrowerFromTheSecondLevelCache() throws Exception {
+                seedLedger(10, 3);
+                currentUserResolver.currentUserId();
+                entityManagerFactory.getCache().evictAll();
+                LoanDto loanDto = LoanDto.builder()
+                                .borrowerId(savedBorrower.getId())
+                                .amount(new BigDecimal("10.00"))
+                                .dateLent(LocalDate.now())
+                                .build();
+
+                // Cold cache: borrower select, ledger version bump and read-back, loan insert
+                QueryCounter.reset();
+                mockMvc.perform(post("/api/loans").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loanDto)))
+                                .andExpect(status().isOk());
+                QueryCounter.assertCount(4);
+
+                // The borrower now comes from the second-level cache
+                QueryCounter.reset();
+                mockMvc.perform(post("/api/loans").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loanDto)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.borrowerName").value("Integration Loan User"));
+                QueryCounter.assertCount(3);
+        }
+
+        @Test
+        void queryBudget_AddLoansBatch_ShouldNotGrowWithItemCount() throws Exception {
+                List<Loan> loans = seedLedger(10, 1);
+                currentUserResolver.currentUserId();
+                List<LoanDto> items = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                        items.add(LoanDto.builder()
+                                        .borrowerId(loans.get(i % loans.size()).getBorrower().getId())
+                                        .amount(new BigDecimal("10.00"))
+                                        .dateLent(LocalDate.now())
+                                        .build());
+                }
+
+                QueryCounter.reset();
+                mockMvc.perform(post("/api/loans/batch").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                                BatchRequest.<LoanDto>builder().items(items).build())))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.created").value(20));
+
+                // One borrower lookup for the whole batch, the ledger version bump and read-back, one batched insert
+                QueryCounter.assertCount(4);
+        }
+
+        @Test
+        void queryBudget_DeleteLoan_ShouldSelectAndDelete() throws Exception {
+                List<Loan> loans = seedLedger(10, 3);
+                currentUserResolver.currentUserId();
+
+                QueryCounter.reset();
+                mockMvc.perform(delete("/api/loans/" + loans.get(0).getId()).with(csrf()))
+                                .andExpect(status().isNoContent());
+
+                // Loan select, ledger version bump and read-back, delete, tombstone insert
+                QueryCounter.assertCount(5);
+        }
+
+        @Test
+        void queryBudget_RepayLoan_ShouldUseConditionalStatementsOnly() throws Exception {
+                List<Loan> loans = seedLedger(10, 3);
+                currentUserResolver.currentUserId();
+                Long loanId = loans.get(0).getId();
+
+                QueryCounter.reset();
+                mockMvc.perform(put("/api/loans/" + loanId + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 5.00}"))
+                                .andExpect(status().isNoContent());
+                // Ledger version bump and read-back, then the conditional deduction
+                QueryCounter.assertCount(3);
+
+                QueryCounter.reset();
+                mockMvc.perform(put("/api/loans/" + loanId + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 100.00}"))
+                                .andExpect(status().isNoContent());
+                // ...the deduction misses, the conditional delete hits and a tombstone is recorded
+                QueryCounter.assertCount(5);
+
+                QueryCounter.reset();
+                mockMvc.perform(put("/api/loans/" + loanId + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 5.00}"))
+                                .andExpect(status().isNotFound());
+                // ...both conditional statements miss and the existence check fails; the bump is rolled back
+                QueryCounter.assertCount(5);
+        }
+
+        @Test
+        void getAllActiveLoans_IfNoneMatch_ShouldAnswerNotModifiedWithoutQueryingLoans() throws Exception {
+                seedLedger(10, 3);
+                currentUserResolver.currentUserId();
+
+                String etag = mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                QueryCounter.reset();
+                mockMvc.perform(get("/api/loans").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                QueryCounter.assertCount(1);
+                assertTrue(QueryCounter.statements().get(0).contains("ledger_versions"));
+        }
+
+        @Test
+        void ledgerWrites_ShouldChangeTheListETag() throws Exception {
+                List<Loan> loans = seedLedger(1, 2);
+                String initial = listETag();
+
+                mockMvc.perform(put("/api/loans/" + loans.get(0).getId() + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 5.00}"))
+                                .andExpect(status().isNoContent());
+                String afterRepay = listETag();
+                assertNotEquals(initial, afterRepay);
+                mockMvc.perform(get("/api/loans").header("If-None-Match", initial))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)));
+
+                mockMvc.perform(delete("/api/loans/" + loans.get(1).getId()).with(csrf()))
+                                .andExpect(status().isNoContent());
+                String afterDelete = listETag();
+                assertNotEquals(afterRepay, afterDelete);
+
+                mockMvc.perform(post("/api/loans").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(LoanDto.builder()
+                                                .borrowerId(savedBorrower.getId())
+                                                .amount(new BigDecimal("10.00"))
+                                                .dateLent(LocalDate.now())
+                                                .build())))
+                                .andExpect(status().isOk());
+                assertNotEquals(afterDelete, listETag());
+        }
+
+        @Test
+        void getAllActiveLoans_AcceptCbor_ShouldReturnTheSameLoansInBinary() throws Exception {
+                List<Loan> loans = seedLedger(2, 2);
+
+                MvcResult result = mockMvc.perform(get("/api/loans").accept(WireFormats.CBOR))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType(WireFormats.CBOR))
+                                .andExpect(header().string("Vary", containsString("Accept")))
+                                .andReturn();
+
+                JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+                assertEquals(4, body.size());
+                assertEquals(loans.get(0).getId(), body.get(0).get("id").asLong());
+                assertEquals("Ledger User 1", body.get(0).get("borrowerName").asText());
+                assertEquals(LocalDate.now().plusMonths(1).toString(), body.get(0).get("dueDate").asText());
+                assertEquals(0, new BigDecimal("25.00").compareTo(body.get(0).get("amount").decimalValue()));
+        }
+
+        @Test
+        void getAllActiveLoans_AcceptColumnarJson_ShouldWriteEachFieldNameOnce() throws Exception {
+                List<Loan> loans = seedLedger(1, 3);
+
+                MvcResult result = mockMvc.perform(get("/api/loans").accept(WireFormats.COLUMNAR_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(WireFormats.COLUMNAR_JSON))
+                                .andExpect(jsonPath("$.rows").value(3))
+                                .andExpect(jsonPath("$.columns.id", hasSize(3)))
+                                .andExpect(jsonPath("$.columns.id[0]").value(loans.get(0).getId()))
+                                .andExpect(jsonPath("$.columns.amount[2]").value(25.0))
+                                .andExpect(jsonPath("$.columns.dueDate[1]").value(LocalDate.now().plusMonths(1).toString()))
+                                .andExpect(jsonPath("$.columns.status[0]").value("ACTIVE"))
+                                .andReturn();
+
+                String body = result.getResponse().getContentAsString();
+                assertEquals(body.indexOf("\"borrowerName\""), body.lastIndexOf("\"borrowerName\""));
+        }
+
+        @Test
+        void getAllActiveLoans_EachFormat_ShouldHaveItsOwnETag() throws Exception {
+                seedLedger(1, 1);
+                String json = listETag();
+                String cbor = mockMvc.perform(get("/api/loans").accept(WireFormats.CBOR))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+                assertNotEquals(json, cbor);
+
+                // A JSON validator does not revalidate the CBOR representation
+                mockMvc.perform(get("/api/loans").accept(WireFormats.CBOR).header("If-None-Match", json))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/api/loans").accept(WireFormats.CBOR).header("If-None-Match", cbor))
+                                .andExpect(status().isNotModified());
+        }
+
+        @Test
+        void streamEvents_ShouldPushCommittedLedgerChangesInOrder() throws Exception {
+                Loan loan = seedLedger(1, 1).get(0);
+                MvcResult stream = mockMvc.perform(get("/api/loans/events").accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(post("/api/loans").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(LoanDto.builder()
+                                                .borrowerId(savedBorrower.getId())
+                                                .amount(new BigDecimal("10.00"))
+                                                .dateLent(LocalDate.now())
+                                                .build())))
+                                .andExpect(status().isOk());
+                mockMvc.perform(put("/api/loans/" + loan.getId() + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": 5.00}"))
+                                .andExpect(status().isNoContent());
+
+                // Events are written by the broadcaster's own threads, so wait for the last one to arrive
+                String events = awaitStreamContaining(stream, "event:loan-repaid-partial");
+                int created = events.indexOf("event:loan-created");
+                assertTrue(created >= 0, events);
+                assertTrue(created < events.indexOf("event:loan-repaid-partial"), events);
+                assertTrue(events.contains("\"loanId\":" + loan.getId()), events);
+                assertTrue(events.contains("\"amount\":5.00"), events);
+                assertTrue(MediaType.TEXT_EVENT_STREAM.isCompatibleWith(
+                                MediaType.parseMediaType(stream.getResponse().getContentType())));
+        }
+
+        private String awaitStreamContaining(MvcResult stream, String expected) throws Exception {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                String content = stream.getResponse().getContentAsString();
+                while (!content.contains(expected) && System.nanoTime() < deadline) {
+                        Thread.sleep(20);
+                        content = stream.getResponse().getContentAsString();
+                }
+                return content;
+        }
+
+        private String listETag() throws Exception {
+                return mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+        }
+
+        private List<Loan> seedLedger(int borrowers, int loansPerBorrower) {
+                List<Loan> loans = new ArrayList<>();
+                for (int i = 1; i <= borrowers; i++) {
+                        Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                        .name("Ledger User " + i)
+                                        .email("ledger" + i + "@example.com")
+                                        .user(adminUser)
+                                        .build());
+                        for (int j = 0; j < loansPerBorrower; j++) {
+                                loans.add(loanRepository.save(Loan.builder()
+                                                .borrower(borrower)
+                                                .amount(new BigDecimal("25.00"))
+                                                .dateLent(LocalDate.now())
+                                                .dueDate(LocalDate.now().plusMonths(1))
+                                                .status(LoanStatus.ACTIVE)
+                                                .user(adminUser)
+                                                .build()));
+                        }
+                }
+                return loans;
         }
 }
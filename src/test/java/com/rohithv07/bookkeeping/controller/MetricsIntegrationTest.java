@@ -0,0 +1,148 @@
+package com.rohithv07.bookkeeping.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.dto.LoginRequest;
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics export is switched off in tests unless observability is explicitly auto-configured
+@SpringBootTest(properties = "app.security.ops-usernames=ops")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private JwtUtil jwtUtil;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+
+                userRepository.save(AppUser.builder().username("admin").password("pass").build());
+        }
+
+        @Test
+        @WithMockUser(username = "admin", roles = "OPS")
+        void prometheusEndpoint_ShouldExposeRequestServicePoolAndHibernateMeters() throws Exception {
+                mockMvc.perform(get("/api/loans"))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string(allOf(
+                                                containsString("http_server_requests_seconds_bucket"),
+                                                containsString("uri=\"/api/loans\""),
+                                                containsString("bookkeeping_service_seconds_count"),
+                                                containsString("class=\"com.rohithv07.bookkeeping.service.LoanServiceImpl\""),
+                                                containsString("hikaricp_connections_active"),
+                                                containsString("hibernate_flushes_total"),
+                                                containsString("loans_repayments_total"))));
+        }
+
+        @Test
+        void metricsEndpoint_Anonymous_ShouldBeRejected() throws Exception {
+                mockMvc.perform(get("/actuator/metrics"))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/actuator/metrics/http.server.requests"))
+                                .andExpect(status().isForbidden());
+        }
+
+        // The scrape carries Hikari, Hibernate and login outcome series, so it must not be public either
+        @Test
+        void prometheusEndpoint_Anonymous_ShouldBeRejected() throws Exception {
+                mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().isForbidden());
+        }
+
+        // Signup is open, so being logged in is not enough
+        @Test
+        void metricsEndpoints_AuthenticatedWithoutOpsRole_ShouldBeRejected() throws Exception {
+                mockMvc.perform(get("/actuator/prometheus").with(user("admin")))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/actuator/metrics").with(user("admin")))
+                                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void prometheusEndpoint_WithToken_ShouldOnlyAdmitConfiguredOpsUsernames() throws Exception {
+                mockMvc.perform(get("/actuator/prometheus")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("ops", 1L)))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/actuator/prometheus")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("someone", 2L)))
+                                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void healthEndpoint_Anonymous_ShouldStayOpenForProbes() throws Exception {
+                mockMvc.perform(get("/actuator/health"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/actuator/health/readiness"))
+                                .andExpect(status().isOk());
+        }
+
+        @Test
+        void failedLogin_ShouldBeCountedByOutcome() throws Exception {
+                LoginRequest login = LoginRequest.builder().username("nobody").password("Wrong1234").build();
+                MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(login)))
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(loginResult))
+                                .andExpect(status().isUnauthorized());
+
+                mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("OPS")))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string(allOf(
+                                                containsString("auth_login_attempts_total"),
+                                                containsString("outcome=\"invalid_credentials\""),
+                                                containsString("auth_login_rate_limit_rejections_total"))));
+        }
+}
@@ -0,0 +1,299 @@
+package com.rohithv07.bookkeeping.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LedgerTombstoneRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.service.LedgerVersionService;
+import com.rohithv07.bookkeeping.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "admin")
+class SyncControllerIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private LedgerTombstoneRepository tombstoneRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private LedgerVersionService ledgerVersionService;
+
+        private AppUser adminUser;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                tombstoneRepository.deleteAll();
+                userRepository.deleteAll();
+                // Users are recreated per test with fresh ids, so drop any cached username -> id mapping
+                currentUserResolver.evictAll();
+
+                adminUser = userRepository.save(AppUser.builder().username("admin").password("pass").build());
+                ledgerVersionService.initialize(adminUser.getId());
+        }
+
+        @Test
+        void sync_WithoutSince_ShouldReturnTheWholeLedger() throws Exception {
+                seedLedger(3, 2);
+
+                mockMvc.perform(get("/api/sync"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.full").value(true))
+                                .andExpect(jsonPath("$.seq").value(0))
+                                .andExpect(jsonPath("$.loans", hasSize(6)))
+                                .andExpect(jsonPath("$.borrowers", hasSize(3)))
+                                .andExpect(jsonPath("$.tombstones", hasSize(0)))
+                                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+        }
+
+        @Test
+        void sync_FullSyncInPages_ShouldHandOutEveryRowOnceAtTheFirstSeq() throws Exception {
+                List<Loan> loans = seedLedger(3, 2);
+
+                // Borrowers first, then loans, four rows a page
+                JsonNode first = syncPage(null, 4);
+                long seq = first.get("seq").asLong();
+                assertEquals(3, first.get("borrowers").size());
+                assertEquals(1, first.get("loans").size());
+
+                // A write between pages must not move the seq the pages report
+                repay(loans.get(5), "5.00");
+
+                Set<Long> borrowerIds = new HashSet<>(ids(first.get("borrowers")));
+                Set<Long> loanIds = new HashSet<>(ids(first.get("loans")));
+                JsonNode page = first;
+                int pages = 1;
+                while (page.hasNonNull("nextCursor")) {
+                        page = syncPage(page.get("nextCursor").asText(), 4);
+                        pages++;
+                        assertTrue(page.get("full").asBoolean());
+                        assertEquals(seq, page.get("seq").asLong());
+                        borrowerIds.addAll(ids(page.get("borrowers")));
+                        loanIds.addAll(ids(page.get("loans")));
+                }
+                assertEquals(3, pages);
+                assertEquals(3, borrowerIds.size());
+                assertEquals(6, loanIds.size());
+
+                // The delta from the first page's seq carries the write made while paging
+                JsonNode delta = sync(seq);
+                assertEquals(1, delta.get("loans").size());
+                assertEquals(loans.get(5).getId(), delta.get("loans").get(0).get("id").asLong());
+        }
+
+        @Test
+        void sync_BorrowersFillingThePageExactly_ShouldContinueWithLoans() throws Exception {
+                seedLedger(2, 1);
+
+                JsonNode first = syncPage(null, 2);
+                assertEquals(2, first.get("borrowers").size());
+                assertEquals(0, first.get("loans").size());
+
+                JsonNode last = syncPage(first.get("nextCursor").asText(), 2);
+                assertEquals(0, last.get("borrowers").size());
+                assertEquals(2, last.get("loans").size());
+                assertNull(last.get("nextCursor").textValue());
+        }
+
+        @Test
+        void sync_CursorWithSince_ShouldReturnBadRequest() throws Exception {
+                seedLedger(2, 1);
+                String cursor = syncPage(null, 1).get("nextCursor").asText();
+
+                mockMvc.perform(get("/api/sync").param("cursor", cursor).param("since", "0"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void sync_InvalidCursor_ShouldReturnBadRequest() throws Exception {
+                mockMvc.perform(get("/api/sync").param("cursor", "not-a-cursor"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void sync_SincePreviousSeq_ShouldReturnOnlyChangesAndTombstones() throws Exception {
+                List<Loan> loans = seedLedger(2, 3);
+                long since = sync(null).get("seq").asLong();
+
+                repay(loans.get(0), "5.00");
+                repay(loans.get(1), "100.00");
+                mockMvc.perform(delete("/api/loans/" + loans.get(2).getId()).with(csrf()))
+                                .andExpect(status().isNoContent());
+                mockMvc.perform(post("/api/borrowers").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(BorrowerDto.builder()
+                                                .name("New Borrower").email("new@example.com").build())))
+                                .andExpect(status().isOk());
+
+                JsonNode delta = sync(since);
+                assertEquals(false, delta.get("full").asBoolean());
+                assertEquals(since + 4, delta.get("seq").asLong());
+                assertEquals(1, delta.get("loans").size());
+                assertEquals(loans.get(0).getId(), delta.get("loans").get(0).get("id").asLong());
+                assertEquals(0, new BigDecimal("20.00").compareTo(delta.get("loans").get(0).get("amount").decimalValue()));
+                assertEquals(1, delta.get("borrowers").size());
+                assertEquals("New Borrower", delta.get("borrowers").get(0).get("name").asText());
+
+                // Tombstones come in change order and say why the row went away
+                JsonNode tombstones = delta.get("tombstones");
+                assertEquals(2, tombstones.size());
+                assertEquals(loans.get(1).getId(), tombstones.get(0).get("id").asLong());
+                assertEquals("REPAID", tombstones.get(0).get("reason").asText());
+                assertEquals(loans.get(2).getId(), tombstones.get(1).get("id").asLong());
+                assertEquals("DELETED", tombstones.get(1).get("reason").asText());
+                assertTrue(tombstones.get(0).get("changeSeq").asLong() < tombstones.get(1).get("changeSeq").asLong());
+
+                // Nothing changed since the delta
+                JsonNode empty = sync(delta.get("seq").asLong());
+                assertEquals(0, empty.get("loans").size() + empty.get("borrowers").size() + empty.get("tombstones").size());
+        }
+
+        @Test
+        void sync_SinceAheadOfTheLedger_ShouldFallBackToAFullSync() throws Exception {
+                seedLedger(1, 2);
+
+                mockMvc.perform(get("/api/sync").param("since", "999"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.full").value(true))
+                                .andExpect(jsonPath("$.loans", hasSize(2)));
+        }
+
+        @Test
+        void sync_NegativeSince_ShouldReturnBadRequest() throws Exception {
+                mockMvc.perform(get("/api/sync").param("since", "-1"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void queryBudget_Sync_ShouldNotGrowWithLedgerSize() throws Exception {
+                List<Loan> loans = seedLedger(20, 5);
+                currentUserResolver.currentUserId();
+
+                // Full sync: the ledger version, then one page each of borrowers and loans
+                QueryCounter.reset();
+                syncPage(null, 50);
+                QueryCounter.assertCount(3);
+
+                long since = ledgerVersionService.currentVersion(adminUser.getId());
+                repay(loans.get(0), "5.00");
+
+                // The ledger version, then one index range scan each for loans, borrowers and tombstones
+                QueryCounter.reset();
+                JsonNode delta = sync(since);
+                QueryCounter.assertCount(4);
+                assertEquals(1, delta.get("loans").size());
+
+                // Already current: answered from the ledger version alone
+                QueryCounter.reset();
+                sync(delta.get("seq").asLong());
+                QueryCounter.assertCount(1);
+        }
+
+        private JsonNode sync(Long since) throws Exception {
+                String body = mockMvc.perform(since == null ? get("/api/sync") : get("/api/sync").param("since", since.toString()))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readTree(body);
+        }
+
+        private JsonNode syncPage(String cursor, int size) throws Exception {
+                String body = mockMvc.perform(cursor == null
+                                ? get("/api/sync").param("size", String.valueOf(size))
+                                : get("/api/sync").param("cursor", cursor).param("size", String.valueOf(size)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readTree(body);
+        }
+
+        private static List<Long> ids(JsonNode rows) {
+                List<Long> ids = new ArrayList<>();
+                rows.forEach(row -> ids.add(row.get("id").asLong()));
+                return ids;
+        }
+
+        private void repay(Loan loan, String amount) throws Exception {
+                mockMvc.perform(put("/api/loans/" + loan.getId() + "/repay").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"amount\": " + amount + "}"))
+                                .andExpect(status().isNoContent());
+        }
+
+        private List<Loan> seedLedger(int borrowers, int loansPerBorrower) {
+                List<Loan> loans = new ArrayList<>();
+                for (int i = 1; i <= borrowers; i++) {
+                        Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                        .name("Sync User " + i)
+                                        .email("sync" + i + "@example.com")
+                                        .user(adminUser)
+                                        .build());
+                        for (int j = 0; j < loansPerBorrower; j++) {
+                                loans.add(loanRepository.save(Loan.builder()
+                                                .borrower(borrower)
+                                                .amount(new BigDecimal("25.00"))
+                                                .dateLent(LocalDate.now())
+                                                .dueDate(LocalDate.now().plusMonths(1))
+                                                .status(LoanStatus.ACTIVE)
+                                                .user(adminUser)
+                                                .build()));
+                        }
+                }
+                return loans;
+        }
+}
@@ -0,0 +1,74 @@
+package com.rohithv07.bookkeeping.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Migrates a ledger the way production ones were created before Flyway: tables from ddl-auto=update,
+// including the enum check Hibernate put on loans.status. The test databases start empty and never see it.
+class LegacySchemaMigrationTest {
+
+        private static final String INSERT_LOAN = "INSERT INTO loans (id, borrower_id, amount, date_lent, due_date, "
+                        + "status) VALUES (?, 1, 10.00, CURRENT_DATE, CURRENT_DATE, ?)";
+
+        private DriverManagerDataSource dataSource;
+        private JdbcTemplate jdbcTemplate;
+
+        @BeforeEach
+        void setUp() {
+                dataSource = new DriverManagerDataSource(
+                                "jdbc:h2:mem:legacy" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+                jdbcTemplate = new JdbcTemplate(dataSource);
+
+                // As Hibernate 6.6 generated them; PostgreSQL names the inline check loans_status_check
+                jdbcTemplate.execute("CREATE TABLE users (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                                + "username VARCHAR(255) NOT NULL, password VARCHAR(255) NOT NULL, "
+                                + "CONSTRAINT uk_users_username UNIQUE (username))");
+                jdbcTemplate.execute("CREATE TABLE borrowers (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                                + "email VARCHAR(255), phone VARCHAR(255))");
+                jdbcTemplate.execute("CREATE TABLE loans (id BIGINT PRIMARY KEY, amount NUMERIC(38, 2), "
+                                + "date_lent DATE, status VARCHAR(255), borrower_id BIGINT NOT NULL, "
+                                + "CONSTRAINT loans_status_check CHECK (status IN ('ACTIVE', 'REPAID')), "
+                                + "CONSTRAINT fk_legacy_loans_borrower FOREIGN KEY (borrower_id) REFERENCES borrowers (id))");
+                jdbcTemplate.update("INSERT INTO borrowers (id, name) VALUES (1, 'Legacy Borrower')");
+
+                Flyway.configure()
+                                .dataSource(dataSource)
+                                .locations("classpath:db/migration/common")
+                                .baselineOnMigrate(true)
+                                .baselineVersion("0")
+                                .load()
+                                .migrate();
+        }
+
+        @Test
+        void sharedMigrations_ShouldLeaveTheLegacyStatusCheckInPlace() {
+                jdbcTemplate.update(INSERT_LOAN, 1L, "ACTIVE");
+
+                assertThrows(DataIntegrityViolationException.class,
+                                () -> jdbcTemplate.update(INSERT_LOAN, 2L, "OVERDUE"));
+        }
+
+        @Test
+        void statusCheckMigration_ShouldLetLegacyLedgersStoreOverdueLoans() {
+                new ResourceDatabasePopulator(
+                                new ClassPathResource("db/migration/postgresql/V7__loan_status_allows_overdue.sql"))
+                                .execute(dataSource);
+
+                jdbcTemplate.update(INSERT_LOAN, 1L, "ACTIVE");
+                jdbcTemplate.update(INSERT_LOAN, 2L, "OVERDUE");
+                // What OverdueLoanDetector does to a chunk
+                jdbcTemplate.update("UPDATE loans SET status = 'OVERDUE' WHERE id = 1");
+
+                assertEquals(2, jdbcTemplate.queryForObject(
+                                "SELECT COUNT(*) FROM loans WHERE status = 'OVERDUE'", Integer.class));
+        }
+}
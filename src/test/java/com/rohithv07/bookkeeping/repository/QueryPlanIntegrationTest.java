@@ -0,0 +1,175 @@
+package com.rohithv07.bookkeeping.repository;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// EXPLAINs the SQL behind the hot lookups against the migrated schema (H2 in PostgreSQL mode), so an index
+// dropped or reshaped by a later migration shows up as a failing plan instead of a slow production query.
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanIntegrationTest {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private LedgerTombstoneRepository tombstoneRepository;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        private AppUser owner;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                tombstoneRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+
+                // Two ledgers, so a plan that ignores user_id has rows of another user to wade through
+                owner = userRepository.save(AppUser.builder().username("planner").password("pass").build());
+                AppUser other = userRepository.save(AppUser.builder().username("other").password("pass").build());
+                seedLedger(owner);
+                seedLedger(other);
+                jdbcTemplate.execute("ANALYZE");
+        }
+
+        @Test
+        void activeLoanPage_ShouldUseTheUserStatusDueDateIndex() {
+                String plan = explain("SELECT id, amount, due_date FROM loans WHERE user_id = ? AND status = ? "
+                                + "AND (due_date > ? OR (due_date = ? AND id > ?)) ORDER BY due_date, id LIMIT 50",
+                                owner.getId(), LoanStatus.ACTIVE.name(), LocalDate.now(), LocalDate.now(), 0L);
+                assertUsesIndex(plan, "IDX_LOANS_USER_STATUS_DUE_ID");
+        }
+
+        @Test
+        void unpaidLoanPage_ShouldSeekToTheUsersLoans() {
+                // PostgreSQL walks the partial idx_loans_unpaid_user_due_id; H2 has no partial indexes
+                String plan = explain("SELECT id, amount, due_date FROM loans WHERE user_id = ? "
+                                + "AND status IN ('ACTIVE', 'OVERDUE') "
+                                + "AND (due_date > ? OR (due_date = ? AND id > ?)) ORDER BY due_date, id LIMIT 50",
+                                owner.getId(), LocalDate.now(), LocalDate.now(), 0L);
+                assertUsesIndex(plan, "IDX_LOANS_USER_");
+        }
+
+        @Test
+        void overdueDetection_ShouldUseTheStatusDueDateIndex() {
+                String plan = explain("SELECT id, user_id, due_date FROM loans WHERE status = ? AND due_date >= ? "
+                                + "AND due_date < ? ORDER BY due_date, id LIMIT 1000",
+                                LoanStatus.ACTIVE.name(), LocalDate.now(), LocalDate.now().plusDays(3));
+                assertUsesIndex(plan, "IDX_LOANS_STATUS_DUE_ID");
+        }
+
+        @Test
+        void loanSummary_ShouldSeekToTheUsersLoans() {
+                // Every loans index leads with user_id, and any of them narrows the summary to one ledger
+                String plan = explain("SELECT currency, status, COUNT(*) FROM loans WHERE user_id = ? "
+                                + "GROUP BY currency, status", owner.getId());
+                assertUsesIndex(plan, "IDX_LOANS_USER_");
+        }
+
+        @Test
+        void loanDeltaSync_ShouldUseTheUserChangeSeqIndex() {
+                String plan = explain("SELECT id FROM loans WHERE user_id = ? AND change_seq > ?", owner.getId(), 5L);
+                assertUsesIndex(plan, "IDX_LOANS_USER_CHANGE_SEQ");
+        }
+
+        @Test
+        void borrowerByEmail_ShouldUseTheUserEmailIndex() {
+                String plan = explain("SELECT id FROM borrowers WHERE email = ? AND user_id = ?",
+                                "plan3@example.com", owner.getId());
+                assertUsesIndex(plan, "IDX_BORROWERS_USER_EMAIL");
+        }
+
+        @Test
+        void borrowerPage_ShouldUseTheUserIdIndex() {
+                String plan = explain("SELECT id, name FROM borrowers WHERE user_id = ? AND id > ? ORDER BY id LIMIT 50",
+                                owner.getId(), 0L);
+                assertUsesIndex(plan, "IDX_BORROWERS_USER_ID_ID");
+        }
+
+        @Test
+        void loanFullSyncPage_ShouldUseTheUserIdIndex() {
+                String plan = explain("SELECT id, amount FROM loans WHERE user_id = ? AND id > ? ORDER BY id LIMIT 50",
+                                owner.getId(), 0L);
+                assertUsesIndex(plan, "IDX_LOANS_USER_ID_ID");
+        }
+
+        @Test
+        void userByUsername_ShouldUseTheUniqueUsernameIndex() {
+                String plan = explain("SELECT id FROM users WHERE username = ?", "planner");
+                assertUsesIndex(plan, "UK_USERS_USERNAME");
+        }
+
+        @Test
+        void tombstonesSince_ShouldUseTheUserSeqIndex() {
+                String plan = explain("SELECT entity_id FROM ledger_tombstones WHERE user_id = ? AND change_seq > ? "
+                                + "ORDER BY change_seq", owner.getId(), 0L);
+                assertUsesIndex(plan, "IDX_LEDGER_TOMBSTONES_USER_SEQ");
+        }
+
+        private String explain(String sql, Object... args) {
+                return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+        }
+
+        private void assertUsesIndex(String plan, String index) {
+                String normalized = plan.toUpperCase();
+                assertTrue(normalized.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+                assertFalse(normalized.contains("TABLESCAN"), () -> "Unexpected table scan in plan:\n" + plan);
+        }
+
+        private void seedLedger(AppUser user) {
+                List<Borrower> borrowers = new ArrayList<>();
+                for (int i = 1; i <= 20; i++) {
+                        borrowers.add(Borrower.builder()
+                                        .name("Plan User " + i)
+                                        .email("plan" + i + "@example.com")
+                                        .user(user)
+                                        .build());
+                }
+                borrowerRepository.saveAll(borrowers);
+
+                List<Loan> loans = new ArrayList<>();
+                for (Borrower borrower : borrowers) {
+                        for (int j = 0; j < 5; j++) {
+                                loans.add(Loan.builder()
+                                                .borrower(borrower)
+                                                .amount(new BigDecimal("10.00"))
+                                                .dateLent(LocalDate.now())
+                                                .dueDate(LocalDate.now().plusDays(j))
+                                                .status(j == 0 ? LoanStatus.REPAID : LoanStatus.ACTIVE)
+                                                .user(user)
+                                                .build());
+                        }
+                }
+                loanRepository.saveAll(loans);
+        }
+}
@@ -0,0 +1,76 @@
+package com.rohithv07.bookkeeping.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenVerifierTest {
+
+    private static final String SECRET = "this_is_a_local_dummy_secret_key_for_testing_only_do_not_use";
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    private JwtUtil jwtUtil;
+    private JwtTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SECRET, 60_000));
+        verifier = new JwtTokenVerifier(jwtUtil, currentUserResolver, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10));
+    }
+
+    @Test
+    void verify_ValidToken_ShouldParseOnceAndServeRepeatsFromCache() {
+        String token = jwtUtil.generateToken("testuser", 7L);
+
+        Optional<AuthenticatedUser> first = verifier.verify(token);
+        Optional<AuthenticatedUser> second = verifier.verify(token);
+
+        assertEquals(Optional.of(new AuthenticatedUser(7L, "testuser")), first);
+        assertEquals(first, second);
+        verify(jwtUtil, times(1)).parseVerifiedClaims(token);
+        assertEquals(1, verifier.cache().stats().hitCount());
+        assertEquals(1, verifier.cache().stats().missCount());
+        verifyNoInteractions(currentUserResolver);
+    }
+
+    @Test
+    void verify_TokenWithoutUserIdClaim_ShouldFallBackToUserIdLookup() {
+        when(currentUserResolver.resolveUserId("legacyuser")).thenReturn(3L);
+        String token = jwtUtil.generateToken("legacyuser", null);
+
+        Optional<AuthenticatedUser> user = verifier.verify(token);
+
+        assertEquals(Optional.of(new AuthenticatedUser(3L, "legacyuser")), user);
+    }
+
+    @Test
+    void verify_ExpiredToken_ShouldBeRejectedAndNotCached() {
+        String token = new JwtUtil(SECRET, -1_000).generateToken("testuser", 7L);
+
+        assertTrue(verifier.verify(token).isEmpty());
+        assertEquals(0, verifier.cache().estimatedSize());
+    }
+
+    @Test
+    void verify_TamperedToken_ShouldBeRejected() {
+        String token = jwtUtil.generateToken("testuser", 7L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(verifier.verify(tampered).isEmpty());
+        verify(currentUserResolver, never()).resolveUserId(any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.rohithv07.bookkeeping.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private static final long MAX_TRACKED_KEYS = 10_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginRateLimiter(meterRegistry, MAX_TRACKED_KEYS, 5, Duration.ofMinutes(1), 30,
+                Duration.ofMinutes(1));
+    }
+
+    @Test
+    void tryAcquire_SameUsernameFromManyIps_ShouldStopAfterUsernameCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("victim", "10.0.0." + i));
+        }
+
+        assertFalse(limiter.tryAcquire("victim", "10.0.0.99"));
+        assertTrue(limiter.tryAcquire("someone-else", "10.0.0.99"));
+        assertEquals(1.0, rejections("username"));
+        assertEquals(0.0, rejections("ip"));
+    }
+
+    @Test
+    void tryAcquire_ManyUsernamesFromOneIp_ShouldStopAfterIpCapacity() {
+        for (int i = 0; i < 30; i++) {
+            assertTrue(limiter.tryAcquire("user" + i, "203.0.113.7"));
+        }
+
+        assertFalse(limiter.tryAcquire("fresh-user", "203.0.113.7"));
+        assertTrue(limiter.tryAcquire("fresh-user", "203.0.113.8"));
+        assertEquals(1.0, rejections("ip"));
+        // The rejected attempt never reached the username store
+        assertEquals(31, limiter.trackedUsernames());
+    }
+
+    @Test
+    void tryAcquire_FarMoreDistinctUsernamesThanTracked_ShouldKeepStoresBounded() {
+        // Ten times the bound is enough to force eviction in both stores and keeps the unit suite fast
+        stuff(0, (int) (10 * MAX_TRACKED_KEYS));
+
+        assertTrue(limiter.trackedUsernames() <= MAX_TRACKED_KEYS);
+        assertTrue(limiter.trackedIps() <= MAX_TRACKED_KEYS);
+        assertEquals((double) limiter.trackedUsernames(),
+                meterRegistry.get(LoginRateLimiter.BUCKETS_METRIC).tag("scope", "username").gauge().value());
+    }
+
+    // Slow (millions of attempts and forced GCs), so it runs with ./gradlew benchmarkTest
+    @Test
+    @Tag("benchmark")
+    void tryAcquire_MillionsOfDistinctUsernames_ShouldKeepRetainedHeapFlat() {
+        // Fill both stores to their bound first, so the baseline already holds a full store
+        int warmUp = (int) (2 * MAX_TRACKED_KEYS);
+        stuff(0, warmUp);
+        long baseline = retainedHeap();
+
+        stuff(warmUp, 3_000_000);
+        long retained = retainedHeap();
+
+        // A store that kept every key would retain hundreds of bytes per attempt, hundreds of MB in all
+        long growth = retained - baseline;
+        System.out.printf("Login rate limiter: %d KB retained after 3M distinct usernames (baseline %d KB)%n",
+                retained / 1024, baseline / 1024);
+        assertTrue(growth < 16L * 1024 * 1024, "retained heap grew by " + growth / 1024 + " KB");
+        assertTrue(limiter.trackedUsernames() <= MAX_TRACKED_KEYS);
+        assertTrue(limiter.trackedIps() <= MAX_TRACKED_KEYS);
+    }
+
+    // A spread-out botnet: every attempt uses a new username, and IPs rotate through a /8
+    private void stuff(int from, int to) {
+        for (int i = from; i < to; i++) {
+            String ip = "10." + ((i >>> 16) & 0xFF) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF);
+            limiter.tryAcquire("stuffed-" + i, ip);
+
+            if (i % MAX_TRACKED_KEYS == 0) {
+                assertTrue(limiter.trackedUsernames() <= MAX_TRACKED_KEYS, "username store exceeded its bound");
+                assertTrue(limiter.trackedIps() <= MAX_TRACKED_KEYS, "IP store exceeded its bound");
+            }
+        }
+    }
+
+    // Heap still in use after full collections, i.e. roughly what live objects such as the stores retain
+    private static long retainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private double rejections(String scope) {
+        return meterRegistry.get(LoginRateLimiter.REJECTIONS_METRIC).tag("scope", scope).counter().count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.rohithv07.bookkeeping.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One worker and one queue slot; every hash blocks until the test releases it
+        service = new PasswordHashingService(new BlockingEncoder(release), meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.destroy();
+    }
+
+    @Test
+    void matches_ShouldRunOffTheCallingThread() throws Exception {
+        release.countDown();
+
+        CompletableFuture<Boolean> result = service.matches("secret", "encoded:secret");
+
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        assertEquals("encoded:secret", service.encode("secret").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_WhenPoolAndQueueAreFull_ShouldRejectImmediately() throws Exception {
+        CompletableFuture<Boolean> running = service.matches("a", "encoded:a");
+        CompletableFuture<Boolean> queued = service.matches("b", "encoded:b");
+
+        assertThrows(RejectedExecutionException.class, () -> service.matches("c", "encoded:c"));
+        assertEquals(1.0, meterRegistry.get(PasswordHashingService.EXECUTOR_NAME + ".rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            awaitRelease();
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            awaitRelease();
+            return encodedPassword.equals("encoded:" + rawPassword);
+        }
+
+        private void awaitRelease() {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
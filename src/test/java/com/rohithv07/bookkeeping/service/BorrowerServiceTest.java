@@ -1,24 +1,25 @@
 package com.rohithv07.bookkeeping.service;
 
 import com.rohithv07.bookkeeping.dto.BorrowerDto;
+import com.rohithv07.bookkeeping.dto.LedgerChange;
 import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
 import com.rohithv07.bookkeeping.model.Borrower;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,6 +34,15 @@ class BorrowerServiceTest {
     @Mock
     private AppUserRepository userRepository;
 
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BorrowerServiceImpl borrowerService;
 
@@ -42,11 +52,7 @@ class BorrowerServiceTest {
 
     @BeforeEach
     void setUp() {
-        SecurityContext securityContext = mock(SecurityContext.class);
-        Authentication authentication = mock(Authentication.class);
-        lenient().when(authentication.getName()).thenReturn("testuser");
-        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
-        SecurityContextHolder.setContext(securityContext);
+        lenient().when(currentUserResolver.currentUserId()).thenReturn(1L);
 
         sampleUser = new AppUser(1L, "testuser", "encodedPass");
         sampleBorrower = Borrower.builder()
@@ -67,7 +73,7 @@ class BorrowerServiceTest {
 
     @Test
     void addBorrower_ShouldReturnSavedBorrower() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(sampleUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(sampleUser);
         when(borrowerRepository.save(any(Borrower.class))).thenReturn(sampleBorrower);
 
         BorrowerDto savedBorrower = borrowerService.addBorrower(sampleBorrowerDto);
@@ -75,37 +81,44 @@ class BorrowerServiceTest {
         assertNotNull(savedBorrower);
         assertEquals(1L, savedBorrower.getId());
         assertEquals("John Doe", savedBorrower.getName());
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).getReferenceById(1L);
+        verify(userRepository, never()).findByUsername(any());
         verify(borrowerRepository, times(1)).save(any(Borrower.class));
+        verify(ledgerVersionService, times(1)).bump(1L);
+
+        ArgumentCaptor<LedgerChangedEvent> event = ArgumentCaptor.forClass(LedgerChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(LedgerChange.Type.BORROWER_CREATED, event.getValue().change().getType());
+        assertEquals(savedBorrower, event.getValue().change().getBorrower());
     }
 
     @Test
     void getAllBorrowers_ShouldReturnListOfBorrowers() {
-        when(borrowerRepository.findByUserUsername("testuser")).thenReturn(List.of(sampleBorrower));
+        when(borrowerRepository.findDtosByUserId(1L)).thenReturn(List.of(sampleBorrowerDto));
 
         List<BorrowerDto> borrowers = borrowerService.getAllBorrowers();
 
         assertFalse(borrowers.isEmpty());
         assertEquals(1, borrowers.size());
-        verify(borrowerRepository, times(1)).findByUserUsername("testuser");
+        verify(borrowerRepository, times(1)).findDtosByUserId(1L);
     }
 
     @Test
     void getBorrowerById_ExistingId_ShouldReturnBorrower() {
-        when(borrowerRepository.findByIdAndUserUsername(1L, "testuser")).thenReturn(Optional.of(sampleBorrower));
+        when(borrowerRepository.findDtoByIdAndUserId(1L, 1L)).thenReturn(Optional.of(sampleBorrowerDto));
 
         BorrowerDto foundBorrower = borrowerService.getBorrowerById(1L);
 
         assertNotNull(foundBorrower);
         assertEquals(1L, foundBorrower.getId());
-        verify(borrowerRepository, times(1)).findByIdAndUserUsername(1L, "testuser");
+        verify(borrowerRepository, times(1)).findDtoByIdAndUserId(1L, 1L);
     }
 
     @Test
     void getBorrowerById_NonExistingId_ShouldThrowResourceNotFoundException() {
-        when(borrowerRepository.findByIdAndUserUsername(2L, "testuser")).thenReturn(Optional.empty());
+        when(borrowerRepository.findDtoByIdAndUserId(2L, 1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> borrowerService.getBorrowerById(2L));
-        verify(borrowerRepository, times(1)).findByIdAndUserUsername(2L, "testuser");
+        verify(borrowerRepository, times(1)).findDtoByIdAndUserId(2L, 1L);
     }
 }
@@ -0,0 +1,60 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.LedgerVersionRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerVersionServiceIntegrationTest {
+
+    @Autowired
+    private LedgerVersionService ledgerVersionService;
+
+    @Autowired
+    private LedgerVersionRepository ledgerVersionRepository;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        ledgerVersionRepository.deleteAll();
+        userRepository.deleteAll();
+        currentUserResolver.evictAll();
+        // No version row, like a user inserted outside signup
+        user = userRepository.save(AppUser.builder().username("versioned").password("pass").build());
+    }
+
+    @Test
+    void bump_WithoutARow_ShouldStartAtOneAndKeepCounting() {
+        assertEquals(1, ledgerVersionService.bump(user.getId()));
+        assertEquals(2, ledgerVersionService.bump(user.getId()));
+        assertEquals(1, ledgerVersionRepository.count());
+    }
+
+    @Test
+    void initialize_WhenTheRowAlreadyExists_ShouldNeitherFailNorReset() {
+        ledgerVersionService.initialize(user.getId());
+        ledgerVersionService.bump(user.getId());
+
+        // A second signup path or a startup backfill racing the first one
+        ledgerVersionService.initialize(user.getId());
+
+        assertEquals(1, ledgerVersionService.currentVersion(user.getId()));
+        assertEquals(1, ledgerVersionRepository.count());
+    }
+}
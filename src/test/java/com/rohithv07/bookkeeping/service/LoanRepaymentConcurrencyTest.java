@@ -0,0 +1,159 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.AuthenticatedUser;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Row locks must outlast the queue of waiting repayments, so this suite uses its own H2 database with a long lock timeout.
+// Second-level cache regions are shared per JVM, so they get a prefix to keep this database's rows apart.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repaymentdb;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000;MODE=PostgreSQL",
+        "spring.jpa.properties.hibernate.cache.region_prefix=repaymentdb"
+})
+@ActiveProfiles("test")
+class LoanRepaymentConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private LedgerVersionService ledgerVersionService;
+
+    private AppUser owner;
+    private Loan loan;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        borrowerRepository.deleteAll();
+        userRepository.deleteAll();
+        currentUserResolver.evictAll();
+
+        owner = userRepository.save(AppUser.builder().username("concurrent").password("pass").build());
+        // Signup normally creates the row; every repayment below bumps it
+        ledgerVersionService.initialize(owner.getId());
+        Borrower borrower = borrowerRepository.save(Borrower.builder()
+                .name("Concurrent Borrower")
+                .email("concurrent@example.com")
+                .user(owner)
+                .build());
+        loan = loanRepository.save(Loan.builder()
+                .borrower(borrower)
+                .amount(new BigDecimal("1000.00"))
+                .currency("USD")
+                .dateLent(LocalDate.now())
+                .status(LoanStatus.ACTIVE)
+                .user(owner)
+                .build());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parallelPartialRepayments_ShouldAllBeApplied() throws Exception {
+        int repayments = 400;
+        List<Future<Throwable>> outcomes = repayInParallel(repayments, new BigDecimal("1.50"));
+
+        for (Future<Throwable> outcome : outcomes) {
+            Throwable failure = outcome.get(60, TimeUnit.SECONDS);
+            assertNull(failure, () -> "Repayment failed: " + failure);
+        }
+
+        Loan reloaded = loanRepository.findById(loan.getId()).orElseThrow();
+        // 1000.00 - 400 x 1.50: any lost update would leave a higher balance
+        assertEquals(0, new BigDecimal("400.00").compareTo(reloaded.getAmount()));
+        assertEquals(loan.getVersion() + repayments, reloaded.getVersion());
+    }
+
+    @Test
+    void parallelFullRepayments_ShouldSettleTheLoanExactlyOnce() throws Exception {
+        List<Future<Throwable>> outcomes = repayInParallel(THREADS * 2, new BigDecimal("1000.00"));
+
+        int settled = 0;
+        for (Future<Throwable> outcome : outcomes) {
+            Throwable failure = outcome.get(60, TimeUnit.SECONDS);
+            if (failure == null) {
+                settled++;
+            } else {
+                // Everyone after the winner finds the loan already deleted
+                assertInstanceOf(ResourceNotFoundException.class, failure);
+            }
+        }
+
+        assertEquals(1, settled);
+        assertFalse(loanRepository.existsById(loan.getId()));
+    }
+
+    // Starts all repayments at once; each future yields the failure, or null on success
+    private List<Future<Throwable>> repayInParallel(int count, BigDecimal amount) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Throwable>> outcomes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            outcomes.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        new AuthenticatedUser(owner.getId(), owner.getUsername()), null, List.of()));
+                try {
+                    assertTrue(start.await(10, TimeUnit.SECONDS));
+                    loanService.repayLoan(loan.getId(), amount);
+                    return null;
+                } catch (Throwable e) {
+                    return e;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        start.countDown();
+        return outcomes;
+    }
+}
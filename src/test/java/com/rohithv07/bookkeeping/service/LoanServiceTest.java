@@ -1,32 +1,42 @@
 package com.rohithv07.bookkeeping.service;
 
+import com.rohithv07.bookkeeping.dto.LedgerChange;
 import com.rohithv07.bookkeeping.dto.LoanDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryDto;
+import com.rohithv07.bookkeeping.dto.LoanSummaryGroup;
 import com.rohithv07.bookkeeping.exception.ResourceNotFoundException;
 import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.LedgerTombstone;
 import com.rohithv07.bookkeeping.model.Loan;
 import com.rohithv07.bookkeeping.model.LoanStatus;
 import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.LedgerTombstoneRepository;
 import com.rohithv07.bookkeeping.repository.LoanRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import com.rohithv07.bookkeeping.model.AppUser;
 import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +51,21 @@ class LoanServiceTest {
     @Mock
     private AppUserRepository userRepository;
 
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    @Mock
+    private LedgerTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private LoanServiceImpl loanService;
 
@@ -51,11 +76,8 @@ class LoanServiceTest {
 
     @BeforeEach
     void setUp() {
-        SecurityContext securityContext = mock(SecurityContext.class);
-        Authentication authentication = mock(Authentication.class);
-        lenient().when(authentication.getName()).thenReturn("testuser");
-        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
-        SecurityContextHolder.setContext(securityContext);
+        lenient().when(currentUserResolver.currentUserId()).thenReturn(1L);
+        lenient().when(ledgerVersionService.bump(1L)).thenReturn(7L);
 
         sampleUser = new AppUser(1L, "testuser", "encodedPass");
         sampleBorrower = Borrower.builder()
@@ -85,8 +107,8 @@ class LoanServiceTest {
 
     @Test
     void addLoan_ShouldReturnSavedLoan() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(sampleUser));
-        when(borrowerRepository.findByIdAndUserUsername(1L, "testuser")).thenReturn(Optional.of(sampleBorrower));
+        when(userRepository.getReferenceById(1L)).thenReturn(sampleUser);
+        when(borrowerRepository.findOwnedById(1L, 1L)).thenReturn(Optional.of(sampleBorrower));
         when(loanRepository.save(any(Loan.class))).thenReturn(sampleLoan);
 
         LoanDto savedLoan = loanService.addLoan(sampleLoanDto);
@@ -95,83 +117,188 @@ class LoanServiceTest {
         assertEquals(100L, savedLoan.getId());
         assertEquals(new BigDecimal("500.00"), savedLoan.getAmount());
         assertEquals(1L, savedLoan.getBorrowerId());
-        verify(userRepository, times(1)).findByUsername("testuser");
-        verify(borrowerRepository, times(1)).findByIdAndUserUsername(1L, "testuser");
-        verify(loanRepository, times(1)).save(any(Loan.class));
+        verify(userRepository, times(1)).getReferenceById(1L);
+        verify(userRepository, never()).findByUsername(any());
+        verify(borrowerRepository, times(1)).findOwnedById(1L, 1L);
+        ArgumentCaptor<Loan> saved = ArgumentCaptor.forClass(Loan.class);
+        verify(loanRepository, times(1)).save(saved.capture());
+        assertEquals(7L, saved.getValue().getChangeSeq());
+        verify(ledgerVersionService, times(1)).bump(1L);
+
+        LedgerChangedEvent event = publishedEvent();
+        assertEquals(1L, event.userId());
+        assertEquals(LedgerChange.Type.LOAN_CREATED, event.change().getType());
+        assertEquals(savedLoan, event.change().getLoan());
+        assertEquals(7L, event.change().getSeq());
     }
 
     @Test
     void getAllLoans_ShouldReturnListOfLoans() {
-        when(loanRepository.findByUserUsername("testuser")).thenReturn(List.of(sampleLoan));
+        when(loanRepository.findDtosByUserId(1L)).thenReturn(List.of(sampleLoanDto));
 
         List<LoanDto> loans = loanService.getAllLoans();
 
         assertFalse(loans.isEmpty());
         assertEquals(1, loans.size());
-        verify(loanRepository, times(1)).findByUserUsername("testuser");
+        verify(loanRepository, times(1)).findDtosByUserId(1L);
     }
 
     @Test
     void getActiveLoans_ShouldReturnOnlyActiveLoans() {
-        when(loanRepository.findByStatusAndUserUsername(LoanStatus.ACTIVE, "testuser")).thenReturn(List.of(sampleLoan));
+        sampleLoanDto.setStatus(LoanStatus.ACTIVE);
+        when(loanRepository.findDtosByStatusAndUserId(LoanStatus.ACTIVE, 1L))
+                .thenReturn(List.of(sampleLoanDto));
 
         List<LoanDto> activeLoans = loanService.getActiveLoans();
 
         assertFalse(activeLoans.isEmpty());
         assertEquals(LoanStatus.ACTIVE, activeLoans.get(0).getStatus());
-        verify(loanRepository, times(1)).findByStatusAndUserUsername(LoanStatus.ACTIVE, "testuser");
+        verify(loanRepository, times(1)).findDtosByStatusAndUserId(LoanStatus.ACTIVE, 1L);
     }
 
     @Test
     void getLoanById_ExistingId_ShouldReturnLoan() {
-        when(loanRepository.findByIdAndUserUsername(100L, "testuser")).thenReturn(Optional.of(sampleLoan));
+        when(loanRepository.findDtoByIdAndUserId(100L, 1L)).thenReturn(Optional.of(sampleLoanDto));
 
         LoanDto foundLoan = loanService.getLoanById(100L);
 
         assertNotNull(foundLoan);
         assertEquals(100L, foundLoan.getId());
-        verify(loanRepository, times(1)).findByIdAndUserUsername(100L, "testuser");
+        verify(loanRepository, times(1)).findDtoByIdAndUserId(100L, 1L);
     }
 
     @Test
     void getLoanById_NonExistingId_ShouldThrowResourceNotFoundException() {
-        when(loanRepository.findByIdAndUserUsername(999L, "testuser")).thenReturn(Optional.empty());
+        when(loanRepository.findDtoByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> loanService.getLoanById(999L));
-        verify(loanRepository, times(1)).findByIdAndUserUsername(999L, "testuser");
+        verify(loanRepository, times(1)).findDtoByIdAndUserId(999L, 1L);
     }
 
     @Test
     void deleteLoan_ExistingActiveLoan_ShouldDelete() {
-        when(loanRepository.findByIdAndUserUsername(100L, "testuser")).thenReturn(Optional.of(sampleLoan));
+        when(loanRepository.findByIdAndUserId(100L, 1L)).thenReturn(Optional.of(sampleLoan));
 
         loanService.deleteLoan(100L);
 
-        verify(loanRepository, times(1)).findByIdAndUserUsername(100L, "testuser");
+        verify(loanRepository, times(1)).findByIdAndUserId(100L, 1L);
         verify(loanRepository, times(1)).delete(sampleLoan);
+        verify(ledgerVersionService, times(1)).bump(1L);
+        LedgerTombstone tombstone = recordedTombstone();
+        assertEquals(100L, tombstone.getEntityId());
+        assertEquals(LedgerTombstone.Reason.DELETED, tombstone.getReason());
+        assertEquals(7L, tombstone.getChangeSeq());
     }
 
     @Test
-    void repayLoan_PartialAmount_ShouldUpdateLoan() {
-        when(loanRepository.findByIdAndUserUsername(100L, "testuser")).thenReturn(Optional.of(sampleLoan));
-        // Current amount is 500. Repaying 200 should leave 300.
+    void repayLoan_PartialAmount_ShouldDeductInOneStatement() {
+        BigDecimal repayment = new BigDecimal("200.00");
+        when(loanRepository.deductRepayment(100L, 1L, repayment, 7L)).thenReturn(1);
 
-        loanService.repayLoan(100L, new BigDecimal("200.00"));
+        loanService.repayLoan(100L, repayment);
 
-        verify(loanRepository, times(1)).findByIdAndUserUsername(100L, "testuser");
-        verify(loanRepository, times(1)).save(sampleLoan);
-        assertEquals(new BigDecimal("300.00"), sampleLoan.getAmount());
+        verify(loanRepository, times(1)).deductRepayment(100L, 1L, repayment, 7L);
+        verify(loanRepository, never()).deleteIfRepaidInFull(anyLong(), anyLong(), any(BigDecimal.class));
+        verify(loanRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(loanRepository, never()).save(any(Loan.class));
+        verify(tombstoneRepository, never()).save(any(LedgerTombstone.class));
+        assertEquals(1.0, repayments("partial"));
+        verify(ledgerVersionService, times(1)).bump(1L);
+
+        LedgerChange change = publishedEvent().change();
+        assertEquals(LedgerChange.Type.LOAN_REPAID_PARTIAL, change.getType());
+        assertEquals(100L, change.getLoanId());
+        assertEquals(repayment, change.getAmount());
     }
 
     @Test
     void repayLoan_EqualOrGreaterAmount_ShouldDeleteLoan() {
-        when(loanRepository.findByIdAndUserUsername(100L, "testuser")).thenReturn(Optional.of(sampleLoan));
-        // Current amount is 500. Repaying 600 should delete it.
+        BigDecimal repayment = new BigDecimal("600.00");
+        when(loanRepository.deductRepayment(100L, 1L, repayment, 7L)).thenReturn(0);
+        when(loanRepository.deleteIfRepaidInFull(100L, 1L, repayment)).thenReturn(1);
 
-        loanService.repayLoan(100L, new BigDecimal("600.00"));
+        loanService.repayLoan(100L, repayment);
 
-        verify(loanRepository, times(1)).findByIdAndUserUsername(100L, "testuser");
-        verify(loanRepository, times(1)).delete(sampleLoan);
+        verify(loanRepository, times(1)).deleteIfRepaidInFull(100L, 1L, repayment);
+        verify(loanRepository, never()).existsByIdAndUserId(anyLong(), anyLong());
         verify(loanRepository, never()).save(any(Loan.class));
+        assertEquals(1.0, repayments("full"));
+        assertEquals(LedgerTombstone.Reason.REPAID, recordedTombstone().getReason());
+        assertEquals(LedgerChange.Type.LOAN_REPAID_FULL, publishedEvent().change().getType());
+    }
+
+    @Test
+    void repayLoan_MissingLoan_ShouldThrowException() {
+        BigDecimal repayment = new BigDecimal("50.00");
+        when(loanRepository.deductRepayment(100L, 1L, repayment, 7L)).thenReturn(0);
+        when(loanRepository.deleteIfRepaidInFull(100L, 1L, repayment)).thenReturn(0);
+        when(loanRepository.existsByIdAndUserId(100L, 1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> loanService.repayLoan(100L, repayment));
+        assertEquals(1.0, repayments("not_found"));
+        // The bump is rolled back together with the transaction
+        verify(tombstoneRepository, never()).save(any(LedgerTombstone.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void repayLoan_BalanceKeepsChanging_ShouldGiveUpWithConflict() {
+        BigDecimal repayment = new BigDecimal("50.00");
+        when(loanRepository.deductRepayment(100L, 1L, repayment, 7L)).thenReturn(0);
+        when(loanRepository.deleteIfRepaidInFull(100L, 1L, repayment)).thenReturn(0);
+        when(loanRepository.existsByIdAndUserId(100L, 1L)).thenReturn(true);
+
+        assertThrows(ConcurrencyFailureException.class, () -> loanService.repayLoan(100L, repayment));
+        verify(loanRepository, times(3)).deductRepayment(100L, 1L, repayment, 7L);
+        assertEquals(1.0, repayments("conflict"));
+        assertEquals(0.0, repayments("partial"));
+    }
+
+    @Test
+    void addLoan_BackdatedPastDue_ShouldBeSavedAsOverdue() {
+        when(userRepository.getReferenceById(1L)).thenReturn(sampleUser);
+        when(borrowerRepository.findOwnedById(1L, 1L)).thenReturn(Optional.of(sampleBorrower));
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        sampleLoanDto.setDateLent(LocalDate.now().minusMonths(2));
+
+        LoanDto savedLoan = loanService.addLoan(sampleLoanDto);
+
+        assertEquals(LoanStatus.OVERDUE, savedLoan.getStatus());
+        assertEquals(LocalDate.now().minusMonths(2).plusMonths(1), savedLoan.getDueDate());
+    }
+
+    @Test
+    void getSummary_ShouldFoldGroupsIntoTotals() {
+        when(loanRepository.summarizeByUserId(eq(1L), eq(LoanStatus.ACTIVE), eq(LoanStatus.OVERDUE),
+                any(LocalDate.class))).thenReturn(List.of(
+                        new LoanSummaryGroup("EUR", LoanStatus.ACTIVE, 2L, new BigDecimal("40.00"), 0L),
+                        new LoanSummaryGroup("USD", LoanStatus.ACTIVE, 3L, new BigDecimal("700.00"), 1L),
+                        new LoanSummaryGroup("USD", LoanStatus.OVERDUE, 2L, new BigDecimal("300.00"), 2L),
+                        new LoanSummaryGroup("USD", LoanStatus.REPAID, 1L, new BigDecimal("10.00"), 0L)));
+
+        LoanSummaryDto summary = loanService.getSummary();
+
+        assertEquals(8, summary.getTotalLoans());
+        assertEquals(7, summary.getActiveLoans());
+        assertEquals(3, summary.getOverdueLoans());
+        assertEquals(new BigDecimal("1000.00"), summary.getOutstandingByCurrency().get("USD"));
+        assertEquals(new BigDecimal("40.00"), summary.getOutstandingByCurrency().get("EUR"));
+        assertEquals(4, summary.getGroups().size());
+    }
+
+    private double repayments(String outcome) {
+        return meterRegistry.get(LoanServiceImpl.REPAYMENTS_METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    private LedgerTombstone recordedTombstone() {
+        ArgumentCaptor<LedgerTombstone> captor = ArgumentCaptor.forClass(LedgerTombstone.class);
+        verify(tombstoneRepository, times(1)).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private LedgerChangedEvent publishedEvent() {
+        ArgumentCaptor<LedgerChangedEvent> captor = ArgumentCaptor.forClass(LedgerChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        return captor.getValue();
     }
 }
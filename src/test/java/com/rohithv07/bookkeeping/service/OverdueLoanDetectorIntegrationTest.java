@@ -0,0 +1,175 @@
+package com.rohithv07.bookkeeping.service;
+
+import com.rohithv07.bookkeeping.model.AppUser;
+import com.rohithv07.bookkeeping.model.Borrower;
+import com.rohithv07.bookkeeping.model.JobWatermark;
+import com.rohithv07.bookkeeping.model.Loan;
+import com.rohithv07.bookkeeping.model.LoanStatus;
+import com.rohithv07.bookkeeping.repository.AppUserRepository;
+import com.rohithv07.bookkeeping.repository.BorrowerRepository;
+import com.rohithv07.bookkeeping.repository.JobWatermarkRepository;
+import com.rohithv07.bookkeeping.repository.LoanRepository;
+import com.rohithv07.bookkeeping.security.CurrentUserResolver;
+import com.rohithv07.bookkeeping.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A small chunk size so the past-due loans below take several chunks
+@SpringBootTest(properties = "app.overdue.chunk-size=3")
+@ActiveProfiles("test")
+class OverdueLoanDetectorIntegrationTest {
+
+        @Autowired
+        private OverdueLoanDetector overdueLoanDetector;
+
+        @Autowired
+        private JobWatermarkRepository watermarkRepository;
+
+        @Autowired
+        private LoanRepository loanRepository;
+
+        @Autowired
+        private BorrowerRepository borrowerRepository;
+
+        @Autowired
+        private AppUserRepository userRepository;
+
+        @Autowired
+        private LedgerVersionService ledgerVersionService;
+
+        @Autowired
+        private CurrentUserResolver currentUserResolver;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        private final LocalDate today = LocalDate.now();
+        private AppUser alice;
+        private AppUser bob;
+
+        @BeforeEach
+        void setUp() {
+                loanRepository.deleteAll();
+                borrowerRepository.deleteAll();
+                userRepository.deleteAll();
+                currentUserResolver.evictAll();
+                watermarkRepository.save(JobWatermark.builder()
+                                .name(OverdueLoanDetector.WATERMARK)
+                                .positionDate(LocalDate.of(1970, 1, 1))
+                                .updatedAt(LocalDateTime.now())
+                                .build());
+
+                alice = userRepository.save(AppUser.builder().username("alice").password("pass").build());
+                bob = userRepository.save(AppUser.builder().username("bob").password("pass").build());
+                ledgerVersionService.initialize(alice.getId());
+                ledgerVersionService.initialize(bob.getId());
+        }
+
+        @Test
+        void detectOverdueLoans_ShouldFlagPastDueActiveLoansInChunksAndBumpEachLedger() {
+                // 5 + 2 past due, spread over several chunks of 3
+                seedLoans(alice, 5, -10, LoanStatus.ACTIVE);
+                seedLoans(bob, 2, -1, LoanStatus.ACTIVE);
+                seedLoans(alice, 2, 0, LoanStatus.ACTIVE);
+                seedLoans(bob, 1, -5, LoanStatus.REPAID);
+
+                assertEquals(7, overdueLoanDetector.detectOverdueLoans(today));
+
+                assertEquals(7, countByStatus(LoanStatus.OVERDUE));
+                assertEquals(2, countByStatus(LoanStatus.ACTIVE));
+                assertEquals(1, countByStatus(LoanStatus.REPAID));
+                // Chunks run in (due date, id) order: alice's five loans span the first two chunks and bob's two
+                // the last two. Each chunk bumps every ledger it touches once.
+                assertEquals(2, ledgerVersionService.currentVersion(alice.getId()));
+                assertEquals(2, ledgerVersionService.currentVersion(bob.getId()));
+                // Flagged rows carry the ledger version of their chunk, so delta sync returns them
+                assertEquals(List.of(1L, 1L, 1L, 2L, 2L), changeSeqs(alice, LoanStatus.OVERDUE));
+                assertEquals(List.of(1L, 2L), changeSeqs(bob, LoanStatus.OVERDUE));
+                assertEquals(List.of(0L, 0L), changeSeqs(alice, LoanStatus.ACTIVE));
+        }
+
+        @Test
+        void detectOverdueLoans_ShouldResumeFromTheWatermarkInsteadOfRescanning() {
+                seedLoans(alice, 4, -3, LoanStatus.ACTIVE);
+                seedLoans(alice, 2, 0, LoanStatus.ACTIVE);
+                assertEquals(4, overdueLoanDetector.detectOverdueLoans(today));
+                long version = ledgerVersionService.currentVersion(alice.getId());
+
+                // Nothing new: one locked watermark read and one empty index seek, no writes
+                QueryCounter.reset();
+                assertEquals(0, overdueLoanDetector.detectOverdueLoans(today));
+                QueryCounter.assertCount(2);
+                assertEquals(version, ledgerVersionService.currentVersion(alice.getId()));
+
+                // The next day only the loans that fell due since are flagged
+                assertEquals(2, overdueLoanDetector.detectOverdueLoans(today.plusDays(1)));
+                assertEquals(6, countByStatus(LoanStatus.OVERDUE));
+                JobWatermark watermark = watermarkRepository.findById(OverdueLoanDetector.WATERMARK).orElseThrow();
+                assertEquals(today, watermark.getPositionDate());
+        }
+
+        @Test
+        void detectOverdueLoans_ShouldFlagALowerIdLoanThatLandsOnTheWatermarkDayAfterARun() {
+                Borrower borrower = seedLoans(alice, 3, -2, LoanStatus.ACTIVE);
+                assertEquals(3, overdueLoanDetector.detectOverdueLoans(today));
+                assertEquals(today.minusDays(2),
+                                watermarkRepository.findById(OverdueLoanDetector.WATERMARK).orElseThrow().getPositionDate());
+
+                // Committed after the run, e.g. by another instance: its pooled id sorts before every flagged loan
+                long lowerId = jdbcTemplate.queryForObject("SELECT MIN(id) - 1 FROM loans", Long.class);
+                jdbcTemplate.update("INSERT INTO loans (id, version, change_seq, borrower_id, user_id, amount, "
+                                + "currency, date_lent, due_date, status) VALUES (?, 0, 0, ?, ?, 25.00, 'USD', ?, ?, 'ACTIVE')",
+                                lowerId, borrower.getId(), alice.getId(), today.minusMonths(1), today.minusDays(2));
+
+                assertEquals(1, overdueLoanDetector.detectOverdueLoans(today));
+                assertEquals(LoanStatus.OVERDUE, loanRepository.findById(lowerId).orElseThrow().getStatus());
+                assertEquals(0, countByStatus(LoanStatus.ACTIVE));
+        }
+
+        private long countByStatus(LoanStatus status) {
+                return loanRepository.findAll().stream().filter(loan -> loan.getStatus() == status).count();
+        }
+
+        private List<Long> changeSeqs(AppUser owner, LoanStatus status) {
+                return loanRepository.findAll().stream()
+                                .filter(loan -> loan.getStatus() == status)
+                                .filter(loan -> loan.getUser().getId().equals(owner.getId()))
+                                .map(Loan::getChangeSeq)
+                                .sorted()
+                                .toList();
+        }
+
+        // count loans of the user, due `dueInDays` from today
+        private Borrower seedLoans(AppUser owner, int count, int dueInDays, LoanStatus status) {
+                Borrower borrower = borrowerRepository.save(Borrower.builder()
+                                .name("Overdue Borrower")
+                                .email(owner.getUsername() + "@example.com")
+                                .user(owner)
+                                .build());
+                List<Loan> loans = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        loans.add(Loan.builder()
+                                        .borrower(borrower)
+                                        .amount(new BigDecimal("25.00"))
+                                        .dateLent(today.plusDays(dueInDays).minusMonths(1))
+                                        .dueDate(today.plusDays(dueInDays))
+                                        .status(status)
+                                        .user(owner)
+                                        .build());
+                }
+                loanRepository.saveAll(loans);
+                return borrower;
+        }
+}
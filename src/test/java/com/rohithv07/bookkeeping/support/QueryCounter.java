@@ -0,0 +1,61 @@
+package com.rohithv07.bookkeeping.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements Hibernate prepares, registered for the test profile through
+ * {@code hibernate.session_factory.statement_inspector}. Hibernate creates the instance itself, so the
+ * counts are static: call {@link #reset()} right before the request under test, then assert a budget.
+ *
+ * <p>Sequence calls are not counted: pooled ids are fetched once per allocation block, so whether a given
+ * insert pays for one depends on earlier tests rather than on the endpoint.
+ */
+public class QueryCounter implements StatementInspector {
+
+    // Enough to explain a blown budget without holding every statement of a long test run
+    private static final int MAX_RECORDED_STATEMENTS = 100;
+
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("(?i)next value for|nextval\\(");
+
+    private static final AtomicInteger count = new AtomicInteger();
+    private static final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        if (!SEQUENCE_CALL.matcher(sql).find() && count.incrementAndGet() <= MAX_RECORDED_STATEMENTS) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        count.set(0);
+        statements.clear();
+    }
+
+    public static int count() {
+        return count.get();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public static void assertCount(int expected) {
+        assertEquals(expected, count(), () -> "Unexpected statements: " + statements());
+    }
+
+    public static void assertAtMost(int budget) {
+        assertTrue(count() <= budget,
+                () -> "Query budget of " + budget + " exceeded with " + count() + " statements: " + statements());
+    }
+}